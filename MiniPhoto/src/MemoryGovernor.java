@@ -0,0 +1,164 @@
+// --- 자바 관리(JMX) 관련 임포트 ---
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 힙 메모리 압박 정도를 감시하여 단계별로 알려주는 관리자.
+ * MemoryPoolMXBean의 사용량 임계값 알림을 받아 압박 단계를 계산하고,
+ * 압박 상태인 동안에는 주기적으로 사용량을 다시 확인하여 회복 여부를 판단합니다.
+ * 단계 변경은 알림 스레드에서 전달되므로 UI 갱신은 수신 측에서 EDT로 넘겨야 합니다.
+ */
+final class MemoryGovernor {
+
+    /**
+     * 메모리 압박 단계.
+     */
+    enum Level { NORMAL, ELEVATED, CRITICAL }
+
+    static final double ELEVATED_RATIO = 0.70; // 이 비율 이상이면 주의 단계
+    static final double CRITICAL_RATIO = 0.85; // 이 비율 이상이면 위험 단계
+    static final double ELEVATED_RECOVERY_RATIO = 0.60; // 주의 단계는 이 비율 아래로 내려가야 해제
+    static final double CRITICAL_RECOVERY_RATIO = 0.75; // 위험 단계는 이 비율 아래로 내려가야 주의 단계로 완화
+    private static final long RECHECK_INTERVAL_MILLIS = 2000L;
+
+    private final Consumer<Level> levelListener;
+    private final List<MemoryPoolMXBean> monitoredPools = new ArrayList<>();
+    private final ScheduledExecutorService recheckExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "MiniPhoto-MemoryGovernor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> recheckTask;
+    private volatile Level level = Level.NORMAL;
+
+    /**
+     * @param levelListener 압박 단계가 바뀔 때 호출될 콜백 (임의의 스레드에서 호출됨)
+     */
+    MemoryGovernor(Consumer<Level> levelListener) {
+        this.levelListener = levelListener;
+    }
+
+    /**
+     * 임계값을 지원하는 힙 메모리 풀에 임계값을 설정하고 알림 수신을 시작.
+     */
+    void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported() && maxOf(pool) > 0) {
+                monitoredPools.add(pool);
+            }
+        }
+        applyThresholds(ELEVATED_RATIO);
+
+        NotificationEmitter emitter = (NotificationEmitter) ManagementFactory.getMemoryMXBean();
+        NotificationListener listener = (Notification notification, Object handback) -> {
+            String type = notification.getType();
+            if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                    || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+                reevaluate();
+            }
+        };
+        emitter.addNotificationListener(listener, null, null);
+    }
+
+    /**
+     * 현재 압박 단계.
+     */
+    Level getLevel() {
+        return level;
+    }
+
+    /**
+     * OutOfMemoryError가 실제로 발생했음을 알림. 즉시 위험 단계로 전환합니다.
+     * 호출 측이 이미 위험 단계 조치를 수행했으므로 콜백은 호출하지 않습니다.
+     */
+    void reportOutOfMemory() {
+        updateLevel(Level.CRITICAL, false);
+    }
+
+    /**
+     * 사용량을 다시 측정하여 단계를 갱신.
+     */
+    private synchronized void reevaluate() {
+        updateLevel(levelFor(currentUsageRatio(), level), true);
+    }
+
+    /**
+     * 사용 비율에 해당하는 단계. 올라갈 때와 내려갈 때 기준을 달리하여 (히스테리시스)
+     * 사용량이 경계 근처에 머물 때 재확인마다 단계가 오가지 않도록 합니다.
+     */
+    private static Level levelFor(double ratio, Level current) {
+        if (ratio >= CRITICAL_RATIO) return Level.CRITICAL;
+        if (current == Level.CRITICAL && ratio >= CRITICAL_RECOVERY_RATIO) return Level.CRITICAL;
+        if (ratio >= ELEVATED_RATIO) return Level.ELEVATED;
+        if (current != Level.NORMAL && ratio >= ELEVATED_RECOVERY_RATIO) return Level.ELEVATED;
+        return Level.NORMAL;
+    }
+
+    private synchronized void updateLevel(Level newLevel, boolean notifyListener) {
+        if (newLevel == level) return;
+        level = newLevel;
+
+        // 주의 단계에서는 위험 임계값으로 올려 다음 단계 진입을 다시 알림받음
+        applyThresholds(newLevel == Level.NORMAL ? ELEVATED_RATIO : CRITICAL_RATIO);
+
+        if (newLevel == Level.NORMAL) {
+            if (recheckTask != null) {
+                recheckTask.cancel(false);
+                recheckTask = null;
+            }
+        } else if (recheckTask == null) {
+            recheckTask = recheckExecutor.scheduleWithFixedDelay(
+                this::reevaluate, RECHECK_INTERVAL_MILLIS, RECHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        if (notifyListener) levelListener.accept(newLevel);
+    }
+
+    /**
+     * 감시 중인 풀 중 가장 높은 사용 비율.
+     * GC 직후 사용량(살아 있는 데이터)이 있으면 그것을 우선 사용하여 쓰레기 객체로 인한 오경보를 줄입니다.
+     */
+    private double currentUsageRatio() {
+        double highest = 0.0;
+        for (MemoryPoolMXBean pool : monitoredPools) {
+            long max = maxOf(pool);
+            if (max <= 0) continue;
+            MemoryUsage usage = pool.isCollectionUsageThresholdSupported() ? pool.getCollectionUsage() : null;
+            if (usage == null || usage.getUsed() == 0) usage = pool.getUsage();
+            highest = Math.max(highest, (double) usage.getUsed() / max);
+        }
+        return highest;
+    }
+
+    private void applyThresholds(double ratio) {
+        for (MemoryPoolMXBean pool : monitoredPools) {
+            long threshold = (long) (maxOf(pool) * ratio);
+            try {
+                pool.setUsageThreshold(threshold);
+                if (pool.isCollectionUsageThresholdSupported()) {
+                    pool.setCollectionUsageThreshold(threshold);
+                }
+            } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                System.err.println("메모리 임계값 설정 실패 (" + pool.getName() + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private static long maxOf(MemoryPoolMXBean pool) {
+        return pool.getUsage().getMax();
+    }
+}
@@ -6,6 +6,7 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 // --- 자바 AWT 관련 그래픽, 레이아웃, 이벤트 및 이미지 처리 임포트 ---
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.*;
 import java.awt.image.*;
 
 // --- 이미지 입출력 관련 임포트 ---
@@ -15,7 +16,13 @@ import javax.imageio.ImageIO;
 import java.io.*;
 
 // --- 유틸리티 관련 임포트 ---
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntUnaryOperator;
 
 /**
  * MiniPhoto는 간단한 이미지 편집 기능을 제공하는 자바 스윙 기반의 데스크톱 애플리케이션입니다.
@@ -28,16 +35,26 @@ public class MiniPhoto extends JFrame {
     // --- 이미지 데이터 ---
     private BufferedImage currentImage; // 현재 작업 중인 이미지
     private BufferedImage originalLoadedImage; // 파일에서 처음 불러온 원본 이미지
+    private boolean editedSinceLoad; // 불러온 뒤 작업 이미지가 편집되었는지 (렌디션 원본 선택용)
     private BufferedImage imageForGrayscaleToggle; // 그레이스케일 토글 시 컬러 상태 임시 저장
     private BufferedImage brightnessBaseImage; // 밝기 조절 기준 이미지
+    private BufferedImage brightnessPreviewImage; // 밝기 미리보기용 재사용 버퍼
+    private boolean brightnessPreviewPrimed; // 현재 드래그에서 미리보기 버퍼에 기준 이미지 전체가 복사되었는지
+
+    // --- 버퍼 풀 ---
+    private final PixelBufferPool bufferPool = new PixelBufferPool(PixelBufferPool.defaultBudgetBytes());
 
     // --- UI 컴포넌트 ---
     private ImagePanel imagePanel;
+    private SelectionOverlay selectionOverlay; // 자르기/텍스트/선택 영역 표시 전용 레이어
     private JLabel statusBar;
     private JScrollPane scrollPane;
     private JCheckBox drawCheckBox;
     private JSlider brightnessSlider;
     private JButton textButton;
+    private JComboBox<Resampler.Kernel> kernelComboBox;
+    private JSpinner frameSpinner;
+    private JComboBox<String> selectionShapeComboBox;
 
     // --- 편집 상태 플래그 ---
     private boolean isCropping = false;
@@ -52,9 +69,42 @@ public class MiniPhoto extends JFrame {
     private Point textBoundsStart;
     private Point textBoundsEnd;
 
+    // --- 선택 영역 ---
+    private static final int SELECTION_RECTANGLE = 0; // selectionShapeComboBox 항목 순서
+    private static final int SELECTION_ELLIPSE = 1;
+    private static final int SELECTION_FREEHAND = 2;
+    private boolean isSelecting = false; // 선택 영역 지정 모드
+    private boolean isDefiningSelection = false; // 선택 영역 드래그 중
+    private Point selectionStartPoint;
+    private Path2D.Float freehandPath; // 자유형 선택 경로 (이미지 좌표)
+    private Shape selectionDraftShape; // 드래그 중인 선택 도형 (이미지 좌표)
+    private final Rectangle selectionDraftRectangle = new Rectangle(); // 드래그 중 재사용
+    private final Ellipse2D.Float selectionDraftEllipse = new Ellipse2D.Float();
+    private SelectionMask selectionMask; // 확정된 선택 영역 (null이면 전체 이미지)
+
+    // --- 리샘플링 ---
+    private Resampler.Kernel resampleKernel = Resampler.Kernel.LANCZOS3; // 화면 맞춤/크기 조정에 사용할 커널
+
+    // --- 다중 프레임 (애니메이션 GIF, 다중 페이지 TIFF) ---
+    private static final String OP_BRIGHTNESS = "밝기";
+    private static final String OP_GRAYSCALE = "흑백";
+    private static final String OP_GRAYSCALE_SELECTION = "선택 영역 흑백";
+    private static final String OP_CROP = "자르기";
+    private MultiFrameDocument multiFrameDocument; // 다중 프레임 문서 (단일 이미지면 null)
+    private int currentFrameIndex; // 화면에 표시 중인 프레임 번호 (0부터)
+
     // --- 실행 취소 ---
     private Stack<BufferedImage> undoStack = new Stack<>();
 
+    // --- 메모리 관리 ---
+    private static final int ELEVATED_UNDO_DEPTH = 5; // 메모리 주의 단계의 실행 취소 최대 깊이
+    private static final int CRITICAL_UNDO_DEPTH = 2; // 메모리 위험 단계의 실행 취소 최대 깊이 (현재 상태 + 1단계)
+    private static final long ELEVATED_PROXY_PIXELS = 8_000_000L; // 주의 단계의 작업 이미지 최대 픽셀 수
+    private static final long CRITICAL_PROXY_PIXELS = 2_000_000L; // 위험 단계의 작업 이미지 최대 픽셀 수
+    private static final int ELEVATED_POOL_DIVISOR = 4; // 주의 단계의 버퍼 풀 한도 (기본 한도의 1/4, 위험 단계는 0)
+    private MemoryGovernor memoryGovernor;
+    private long proxyPixelLimit = Long.MAX_VALUE; // 화면 맞춤 시 작업 이미지 최대 픽셀 수
+
     /**
      * MiniPhoto 애플리케이션 생성자: UI 초기화 및 이벤트 리스너 설정.
      */
@@ -64,11 +114,15 @@ public class MiniPhoto extends JFrame {
         // --- UI 요소 생성 ---
         JButton openButton = new JButton("열기");
         JButton saveButton = new JButton("저장");
+        JButton exportButton = new JButton("내보내기");
         JButton grayscaleButton = new JButton("흑백/컬러");
         JButton cropButton = new JButton("자르기");
         JButton undoButton = new JButton("실행취소");
         drawCheckBox = new JCheckBox("그리기");
         textButton = new JButton("텍스트");
+        JButton selectButton = new JButton("영역 선택");
+        JButton clearSelectionButton = new JButton("선택 해제");
+        selectionShapeComboBox = new JComboBox<>(new String[]{"사각형", "타원", "자유형"});
 
         brightnessSlider = new JSlider(-100, 100, 0);
         brightnessSlider.setMajorTickSpacing(50);
@@ -76,10 +130,19 @@ public class MiniPhoto extends JFrame {
         brightnessSlider.setPaintTicks(true);
         brightnessSlider.setPaintLabels(true);
 
+        kernelComboBox = new JComboBox<>(Resampler.Kernel.values());
+        kernelComboBox.setSelectedItem(resampleKernel);
+
+        frameSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1, 1));
+        frameSpinner.setEnabled(false);
+
         statusBar = new JLabel("준비 완료");
         statusBar.setBorder(BorderFactory.createEtchedBorder());
 
         imagePanel = new ImagePanel();
+        selectionOverlay = new SelectionOverlay();
+        imagePanel.setLayout(new BorderLayout());
+        imagePanel.add(selectionOverlay, BorderLayout.CENTER); // 마우스 리스너가 없으므로 이벤트는 이미지 패널로 전달됨
         scrollPane = new JScrollPane(imagePanel);
 
         // --- 상단 패널 레이아웃 (GridBagLayout) ---
@@ -91,11 +154,19 @@ public class MiniPhoto extends JFrame {
         int gridxCounter = 0;
         gbc.gridx = gridxCounter++; gbc.gridy = 0; gbc.weightx = 0; gbc.fill = GridBagConstraints.NONE; topPanel.add(openButton, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(saveButton, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(exportButton, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(grayscaleButton, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(cropButton, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(undoButton, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(drawCheckBox, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(textButton, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(selectionShapeComboBox, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(selectButton, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(clearSelectionButton, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(new JLabel("보간:"), gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(kernelComboBox, gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(new JLabel("프레임:"), gbc);
+        gbc.gridx = gridxCounter++; topPanel.add(frameSpinner, gbc);
         gbc.gridx = gridxCounter++; topPanel.add(new JLabel("밝기:"), gbc);
         gbc.gridx = gridxCounter++; gbc.weightx = 1.0; gbc.fill = GridBagConstraints.HORIZONTAL; topPanel.add(brightnessSlider, gbc);
 
@@ -108,14 +179,40 @@ public class MiniPhoto extends JFrame {
         // --- 이벤트 리스너 설정 ---
         openButton.addActionListener(e -> openImage());
         saveButton.addActionListener(e -> saveImage());
+        exportButton.addActionListener(e -> exportRenditions());
         grayscaleButton.addActionListener(e -> toggleGrayscale());
         cropButton.addActionListener(e -> startCropMode());
         undoButton.addActionListener(e -> performUndo());
         textButton.addActionListener(e -> startTextInsertionMode());
+        selectButton.addActionListener(e -> startSelectionMode());
+        clearSelectionButton.addActionListener(e -> {
+            clearSelection();
+            statusBar.setText("선택이 해제되었습니다. 이후 작업은 전체 이미지에 적용됩니다.");
+        });
+        kernelComboBox.addActionListener(e -> {
+            resampleKernel = (Resampler.Kernel) kernelComboBox.getSelectedItem();
+            statusBar.setText("보간 방식: " + resampleKernel + " (다음 크기 조정부터 적용)");
+        });
+
+        frameSpinner.addChangeListener(e -> {
+            if (multiFrameDocument == null) return;
+            int index = (Integer) frameSpinner.getValue() - 1;
+            if (index == currentFrameIndex) return;
+            currentFrameIndex = index;
+            refreshFrameView();
+            brightnessSlider.setValue(0);
+            statusBar.setText("프레임 " + (index + 1) + " / " + multiFrameDocument.getFrameCount());
+        });
 
         drawCheckBox.addActionListener(e -> {
+            if (drawCheckBox.isSelected() && multiFrameDocument != null) {
+                drawCheckBox.setSelected(false);
+                statusBar.setText("다중 프레임 이미지에서는 그리기를 지원하지 않습니다.");
+                return;
+            }
             if (drawCheckBox.isSelected()) {
                 isCropping = false;
+                isSelecting = false;
                 isInsertingText = false;
                 isDefiningTextBounds = false;
                 imagePanel.setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
@@ -128,25 +225,63 @@ public class MiniPhoto extends JFrame {
         });
 
         brightnessSlider.addChangeListener(e -> {
-            if (currentImage == null || brightnessBaseImage == null) return;
+            if (currentImage == null) return;
+            if (brightnessBaseImage == null) { // 메모리 압박으로 버려진 경우 다시 생성
+                brightnessBaseImage = deepCopy(currentImage);
+                if (brightnessBaseImage == null) return;
+            }
 
             float factor = brightnessSlider.getValue() / 100f;
             BufferedImage imageToDisplay;
 
-            if (brightnessSlider.getValueIsAdjusting()) { // 슬라이더 드래그 중 (미리보기)
-                BufferedImage previewImage = deepCopy(brightnessBaseImage);
+            if (brightnessSlider.getValueIsAdjusting()) { // 슬라이더 드래그 중 (미리보기, 버퍼 재사용)
+                if (selectionMask != null && brightnessPreviewPrimed && brightnessPreviewImage != null) {
+                    // 같은 드래그 안에서는 선택 영역만 기준 이미지로 되돌린 뒤 다시 적용하고 그 부분만 다시 그림
+                    Rectangle dirtyRegion = selectionMask.getBounds();
+                    copyRegion(brightnessBaseImage, brightnessPreviewImage, dirtyRegion);
+                    applyBrightnessEffect(brightnessPreviewImage, factor, selectionMask);
+                    imagePanel.updateImageRegion(brightnessPreviewImage, dirtyRegion);
+                    return;
+                }
+                BufferedImage previewImage = copyReusing(brightnessBaseImage, brightnessPreviewImage);
                 if (previewImage == null) return;
-                applyBrightnessEffect(previewImage, factor);
+                brightnessPreviewImage = previewImage;
+                brightnessPreviewPrimed = true;
+                applyBrightnessEffect(previewImage, factor, selectionMask);
                 imageToDisplay = previewImage;
             } else { // 슬라이더 드래그 완료 (실제 적용)
-                pushToUndoStack(currentImage);
-                currentImage = deepCopy(brightnessBaseImage);
-                if (currentImage == null) {
-                    if (!undoStack.isEmpty()) undoStack.pop();
-                    return;
+                brightnessPreviewPrimed = false;
+                if (multiFrameDocument != null) { // 다중 프레임: 모든 프레임에 적용할 작업으로 기록
+                    if (factor != 0f) {
+                        final SelectionMask mask = selectionMask;
+                        multiFrameDocument.addOperation(OP_BRIGHTNESS, frame -> {
+                            applyBrightnessEffect(frame, factor, mask);
+                            return frame;
+                        });
+                    }
+                } else {
+                    pushToUndoStack(currentImage);
+                }
+                if (selectionMask != null && sameLayout(brightnessBaseImage, currentImage)) {
+                    // 선택 영역이 있으면 선택 경계 안만 기준 이미지에서 되돌려 적용하고, 기준 이미지에도 그 부분만 반영
+                    Rectangle region = selectionMask.getBounds();
+                    copyRegion(brightnessBaseImage, currentImage, region);
+                    applyBrightnessEffect(currentImage, factor, selectionMask);
+                    copyRegion(currentImage, brightnessBaseImage, region);
+                } else {
+                    BufferedImage adjustedImage = copyReusing(brightnessBaseImage, currentImage);
+                    if (adjustedImage == null) {
+                        if (multiFrameDocument != null) {
+                            if (factor != 0f) multiFrameDocument.undoLastOperation();
+                        } else {
+                            discardLastUndoEntry();
+                        }
+                        return;
+                    }
+                    currentImage = adjustedImage;
+                    applyBrightnessEffect(currentImage, factor, selectionMask);
+                    brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                 }
-                applyBrightnessEffect(currentImage, factor);
-                brightnessBaseImage = deepCopy(currentImage);
                 imageToDisplay = currentImage;
                 statusBar.setText("밝기가 조절되었습니다: " + brightnessSlider.getValue());
             }
@@ -172,14 +307,22 @@ public class MiniPhoto extends JFrame {
                     isDefiningTextBounds = false;
                     cropStartPoint = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
                     cropEndPoint = cropStartPoint;
-                    imagePanel.setCropSelection(new Rectangle(cropStartPoint.x, cropStartPoint.y, 0, 0));
-                    imagePanel.repaint();
+                    selectionOverlay.setCropBounds(cropStartPoint.x, cropStartPoint.y, 0, 0);
+                } else if (isSelecting) {
+                    isDefiningSelection = true;
+                    selectionStartPoint = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
+                    freehandPath = null;
+                    if (selectionShapeComboBox.getSelectedIndex() == SELECTION_FREEHAND) {
+                        freehandPath = new Path2D.Float();
+                        freehandPath.moveTo(selectionStartPoint.x, selectionStartPoint.y);
+                    }
+                    selectionDraftShape = null;
+                    selectionOverlay.refresh();
                 } else if (isInsertingText) {
                     isDefiningTextBounds = true;
                     textBoundsStart = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
                     textBoundsEnd = textBoundsStart;
-                    imagePanel.setTextSelectionRectangleToDraw(new Rectangle(textBoundsStart.x, textBoundsStart.y, 0, 0));
-                    imagePanel.repaint();
+                    selectionOverlay.setTextBounds(textBoundsStart.x, textBoundsStart.y, 0, 0);
                 }
             }
 
@@ -187,23 +330,31 @@ public class MiniPhoto extends JFrame {
             public void mouseReleased(MouseEvent e_mouse) {
                 if (isDrawing) {
                     isDrawing = false;
-                    brightnessBaseImage = deepCopy(currentImage);
+                    brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                     drawStartPoint = null;
                     statusBar.setText("그리기가 완료되었습니다.");
                     imagePanel.repaint();
                 } else if (isCropping && currentImage != null && cropStartPoint != null) {
                     cropEndPoint = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
                     applyCrop();
+                } else if (isDefiningSelection && currentImage != null && selectionStartPoint != null) {
+                    Point selectionEndPoint = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
+                    Shape selectionShape = buildSelectionShape(selectionStartPoint, selectionEndPoint);
+                    if (selectionShape instanceof Path2D) {
+                        ((Path2D) selectionShape).closePath();
+                    } else {
+                        selectionShape = (Shape) ((RectangularShape) selectionShape).clone(); // 드래그용 도형은 재사용되므로 복사본을 마스크에 보관
+                    }
+                    finishSelection(selectionShape);
                 } else if (isDefiningTextBounds && textBoundsStart != null) {
                     isDefiningTextBounds = false;
                     isInsertingText = false;
                     imagePanel.setCursor(Cursor.getDefaultCursor());
 
-                    Rectangle definedBounds = imagePanel.getTextSelectionRectangleToDraw();
-                    imagePanel.setTextSelectionRectangleToDraw(null);
-                    imagePanel.repaint();
+                    Rectangle definedBounds = selectionOverlay.getTextBounds();
+                    selectionOverlay.clearTextBounds();
 
-                    if (definedBounds != null && definedBounds.width > 0 && definedBounds.height > 0) {
+                    if (definedBounds.width > 0 && definedBounds.height > 0) {
                         insertTextAtPoint(new Point(definedBounds.x, definedBounds.y));
                     } else {
                         insertTextAtPoint(textBoundsStart);
@@ -234,16 +385,18 @@ public class MiniPhoto extends JFrame {
                     int y_coord = Math.min(cropStartPoint.y, cropEndPoint.y);
                     int width = Math.abs(cropStartPoint.x - cropEndPoint.x);
                     int height = Math.abs(cropStartPoint.y - cropEndPoint.y);
-                    imagePanel.setCropSelection(new Rectangle(x_coord,y_coord,width,height));
-                    imagePanel.repaint();
+                    selectionOverlay.setCropBounds(x_coord, y_coord, width, height); // 이전/현재 영역만 다시 그림
+                } else if (isDefiningSelection && selectionStartPoint != null) {
+                    Point selectionEndPoint = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
+                    selectionDraftShape = buildSelectionShape(selectionStartPoint, selectionEndPoint);
+                    selectionOverlay.refresh();
                 } else if (isDefiningTextBounds && textBoundsStart != null) {
                     textBoundsEnd = imagePanel.convertPanelPointToImagePoint(e_mouse.getPoint());
                     int x = Math.min(textBoundsStart.x, textBoundsEnd.x);
                     int y = Math.min(textBoundsStart.y, textBoundsEnd.y);
                     int width = Math.abs(textBoundsStart.x - textBoundsEnd.x);
                     int height = Math.abs(textBoundsStart.y - textBoundsEnd.y);
-                    imagePanel.setTextSelectionRectangleToDraw(new Rectangle(x, y, width, height));
-                    imagePanel.repaint();
+                    selectionOverlay.setTextBounds(x, y, width, height);
                 }
             }
         });
@@ -254,13 +407,17 @@ public class MiniPhoto extends JFrame {
         setLocationRelativeTo(null);
         setVisible(true);
 
+        // 힙 사용량 임계값 알림은 JMX 스레드에서 오므로 EDT로 넘겨 처리
+        memoryGovernor = new MemoryGovernor(level -> SwingUtilities.invokeLater(() -> handleMemoryPressure(level)));
+        memoryGovernor.start();
+
         // 프로그램 시작 시 이미지 패널 크기 확정 후 초기 이미지 리사이즈
         SwingUtilities.invokeLater(() -> {
             if (originalLoadedImage != null) {
                  resizeImageToFitPanel(originalLoadedImage, false);
             }
             if (currentImage != null) {
-                brightnessBaseImage = deepCopy(currentImage);
+                brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
             }
         });
     }
@@ -304,6 +461,127 @@ public class MiniPhoto extends JFrame {
         }
     }
 
+    /**
+     * 선택 영역 안에서만 밝기 효과 적용 (선택이 없으면 전체 이미지).
+     * 선택 영역 밖 타일은 건너뛰므로 비용이 선택 영역 크기에 비례합니다.
+     * @param image 대상 이미지
+     * @param factor 밝기 조절 계수 (-1.0 ~ 1.0)
+     * @param mask 선택 영역 (null이면 전체)
+     */
+    private void applyBrightnessEffect(BufferedImage image, float factor, SelectionMask mask) {
+        if (mask == null) {
+            applyBrightnessEffect(image, factor);
+            return;
+        }
+        if (image == null) return;
+        float scaleFactor = 1.0f + factor;
+        float offsetVal = (factor > 0 ? factor * 25f : factor * 50f);
+        mask.apply(image, argb -> {
+            int r = clamp((int) (((argb >> 16) & 0xFF) * scaleFactor + offsetVal));
+            int g = clamp((int) (((argb >> 8) & 0xFF) * scaleFactor + offsetVal));
+            int b = clamp((int) ((argb & 0xFF) * scaleFactor + offsetVal));
+            return (argb & 0xFF000000) | (r << 16) | (g << 8) | b;
+        });
+    }
+
+    /**
+     * 선택 영역 안의 픽셀만 흑백으로 변환 (이미지 형식은 유지).
+     */
+    private static void applyGrayscaleInSelection(BufferedImage image, SelectionMask mask) {
+        IntUnaryOperator toLuminance = argb -> {
+            int l = (int) Math.round(0.299 * ((argb >> 16) & 0xFF) + 0.587 * ((argb >> 8) & 0xFF) + 0.114 * (argb & 0xFF));
+            return (argb & 0xFF000000) | (l << 16) | (l << 8) | l;
+        };
+        mask.apply(image, toLuminance);
+    }
+
+    /**
+     * 두 이미지의 크기와 형식이 같은지 확인 (영역 단위 복사 가능 여부).
+     */
+    private static boolean sameLayout(BufferedImage a, BufferedImage b) {
+        return a != null && b != null && a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight() && a.getType() == b.getType();
+    }
+
+    /**
+     * 원본의 지정 영역만 대상 이미지로 복사 (두 이미지는 크기와 형식이 같아야 함).
+     */
+    private void copyRegion(BufferedImage source, BufferedImage target, Rectangle region) {
+        Graphics2D g = target.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.clip(region);
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+    }
+
+    /**
+     * 선택 영역 지정 모드 시작.
+     */
+    private void startSelectionMode() {
+        if (currentImage == null) {
+            statusBar.setText("선택할 이미지가 없습니다.");
+            return;
+        }
+        isSelecting = true;
+        isCropping = false;
+        drawCheckBox.setSelected(false);
+        isDrawing = false;
+        isInsertingText = false;
+        isDefiningTextBounds = false;
+        imagePanel.setCursor(Cursor.getPredefinedCursor(Cursor.CROSSHAIR_CURSOR));
+        statusBar.setText("선택 모드 (" + selectionShapeComboBox.getSelectedItem() + "): 드래그하여 영역을 지정하세요.");
+    }
+
+    /**
+     * 드래그 시작점과 현재 점으로 선택 도형 갱신 (이미지 좌표).
+     * 사각형/타원은 드래그마다 같은 객체를 재사용하고, 자유형은 경로에 점을 계속 추가합니다.
+     */
+    private Shape buildSelectionShape(Point start, Point end) {
+        if (freehandPath != null) {
+            freehandPath.lineTo(end.x, end.y);
+            return freehandPath;
+        }
+        RectangularShape draft = selectionShapeComboBox.getSelectedIndex() == SELECTION_ELLIPSE
+            ? selectionDraftEllipse : selectionDraftRectangle;
+        draft.setFrameFromDiagonal(start, end);
+        return draft;
+    }
+
+    /**
+     * 드래그로 지정한 도형을 타일 마스크로 변환하여 선택 영역으로 확정.
+     */
+    private void finishSelection(Shape shape) {
+        isDefiningSelection = false;
+        isSelecting = false;
+        selectionStartPoint = null;
+        selectionDraftShape = null;
+        freehandPath = null;
+        imagePanel.setCursor(Cursor.getDefaultCursor());
+
+        Rectangle bounds = shape.getBounds();
+        SelectionMask mask = (bounds.width > 0 && bounds.height > 0)
+            ? SelectionMask.fromShape(shape, currentImage.getWidth(), currentImage.getHeight())
+            : null;
+        if (mask == null || mask.isEmpty()) {
+            clearSelection();
+            statusBar.setText("선택 취소: 유효하지 않은 선택 영역입니다.");
+            return;
+        }
+        selectionMask = mask;
+        brightnessPreviewPrimed = false;
+        selectionOverlay.refresh();
+        statusBar.setText("선택 영역 지정됨: " + bounds.width + "x" + bounds.height
+            + " (타일 " + mask.getSelectedTileCount() + "/" + mask.getTileCount() + "개). 밝기/흑백은 선택 영역에만 적용됩니다.");
+    }
+
+    /**
+     * 선택 영역 해제.
+     */
+    private void clearSelection() {
+        selectionMask = null;
+        brightnessPreviewPrimed = false;
+        selectionOverlay.refresh();
+    }
+
     /**
      * 텍스트 삽입 모드 시작.
      */
@@ -312,8 +590,13 @@ public class MiniPhoto extends JFrame {
             statusBar.setText("텍스트를 삽입할 이미지가 없습니다.");
             return;
         }
+        if (multiFrameDocument != null) {
+            statusBar.setText("다중 프레임 이미지에서는 텍스트 삽입을 지원하지 않습니다.");
+            return;
+        }
         isInsertingText = true;
         isCropping = false;
+        isSelecting = false;
         drawCheckBox.setSelected(false);
         isDrawing = false;
         isDefiningTextBounds = false;
@@ -361,7 +644,7 @@ public class MiniPhoto extends JFrame {
                 g2d.dispose();
 
                 imagePanel.setImage(currentImage);
-                brightnessBaseImage = deepCopy(currentImage);
+                brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                 brightnessSlider.setValue(0);
                 statusBar.setText("텍스트가 삽입되었습니다.");
             } else {
@@ -377,29 +660,31 @@ public class MiniPhoto extends JFrame {
      */
     private void openImage() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("이미지 파일", "jpg", "jpeg", "png", "bmp", "gif"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("이미지 파일", "jpg", "jpeg", "png", "bmp", "gif", "tif", "tiff"));
         fileChooser.setAcceptAllFileFilterUsed(false);
 
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
             try {
                 File selectedFile = fileChooser.getSelectedFile();
+                if (MultiFrameDocument.isMultiFrameCandidate(selectedFile)) {
+                    MultiFrameDocument document = MultiFrameDocument.openIfMultiFrame(selectedFile);
+                    if (document != null) {
+                        showMultiFrameDocument(document);
+                        return;
+                    }
+                }
                 BufferedImage loadedImage = ImageIO.read(selectedFile);
                 if (loadedImage == null) {
                     JOptionPane.showMessageDialog(this, "선택한 파일을 이미지로 불러올 수 없습니다.", "불러오기 오류", JOptionPane.ERROR_MESSAGE);
                     statusBar.setText("이미지 불러오기 실패: 유효한 이미지 파일이 아닙니다.");
                     return;
                 }
-                originalLoadedImage = loadedImage;
-                imageForGrayscaleToggle = null;
-
-                resizeImageToFitPanel(originalLoadedImage, false);
-
-                undoStack.clear();
-                pushToUndoStack(currentImage);
-                brightnessBaseImage = deepCopy(currentImage);
-                brightnessSlider.setValue(0);
-
+                showLoadedImage(loadedImage);
                 statusBar.setText("이미지 불러옴: " + selectedFile.getName());
+            } catch (OutOfMemoryError oom) {
+                handleOutOfMemory();
+                JOptionPane.showMessageDialog(this, "메모리가 부족하여 이미지를 불러올 수 없습니다.", "불러오기 오류", JOptionPane.ERROR_MESSAGE);
+                statusBar.setText("이미지 불러오기 실패 (메모리 부족).");
             } catch (IOException ex) {
                 JOptionPane.showMessageDialog(this, "이미지 불러오기 오류: " + ex.getMessage(), "불러오기 오류", JOptionPane.ERROR_MESSAGE);
                 statusBar.setText("이미지 불러오기 실패.");
@@ -412,6 +697,135 @@ public class MiniPhoto extends JFrame {
         }
     }
 
+    /**
+     * 디코딩된 이미지를 새 작업 이미지로 설정 (편집 상태 초기화).
+     * @param loadedImage 파일에서 읽은 원본 이미지
+     */
+    private void showLoadedImage(BufferedImage loadedImage) {
+        closeMultiFrameDocument();
+        originalLoadedImage = loadedImage;
+        bufferPool.release(imageForGrayscaleToggle);
+        imageForGrayscaleToggle = null;
+
+        resizeImageToFitPanel(originalLoadedImage, false);
+
+        clearUndoStack();
+        pushToUndoStack(currentImage);
+        brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
+        brightnessSlider.setValue(0);
+        editedSinceLoad = false;
+    }
+
+    /**
+     * 다중 프레임 문서를 새 작업 대상으로 설정하고 첫 프레임을 표시.
+     * 프레임은 화면 크기에 맞춘 프록시 크기로 필요할 때마다 디코딩됩니다.
+     */
+    private void showMultiFrameDocument(MultiFrameDocument document) {
+        closeMultiFrameDocument();
+        multiFrameDocument = document;
+        currentFrameIndex = 0;
+
+        double scale = fitScale(document.getCanvasWidth(), document.getCanvasHeight());
+        document.setProxySize(
+            Math.max(1, (int) (document.getCanvasWidth() * scale)),
+            Math.max(1, (int) (document.getCanvasHeight() * scale)),
+            resampleKernel);
+
+        originalLoadedImage = null;
+        bufferPool.release(imageForGrayscaleToggle);
+        imageForGrayscaleToggle = null;
+        clearUndoStack();
+
+        frameSpinner.setModel(new SpinnerNumberModel(1, 1, document.getFrameCount(), 1));
+        frameSpinner.setEnabled(true);
+        refreshFrameView();
+        brightnessSlider.setValue(0);
+        statusBar.setText("다중 프레임 이미지 불러옴: " + document.getFileName() + " (" + document.getFrameCount() + " 프레임)");
+    }
+
+    /**
+     * 현재 프레임을 기록된 편집 작업과 함께 다시 그려 작업 이미지로 설정.
+     */
+    private void refreshFrameView() {
+        if (multiFrameDocument == null) return;
+        try {
+            BufferedImage replacedImage = currentImage;
+            currentImage = multiFrameDocument.renderFrame(currentFrameIndex);
+            imagePanel.setImage(currentImage);
+            bufferPool.release(replacedImage);
+            brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
+        } catch (OutOfMemoryError oom) {
+            handleOutOfMemory();
+            statusBar.setText("메모리가 부족하여 프레임을 표시할 수 없습니다.");
+        } catch (IOException ex) {
+            statusBar.setText("프레임 불러오기 실패: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * 열려 있는 다중 프레임 문서를 닫고 프레임 선택기를 비활성화.
+     */
+    private void closeMultiFrameDocument() {
+        if (multiFrameDocument == null) return;
+        try {
+            multiFrameDocument.close();
+        } catch (IOException ex) {
+            System.err.println("다중 프레임 문서 닫기 실패: " + ex.getMessage());
+        }
+        multiFrameDocument = null;
+        currentFrameIndex = 0;
+        frameSpinner.setModel(new SpinnerNumberModel(1, 1, 1, 1));
+        frameSpinner.setEnabled(false);
+    }
+
+    /**
+     * 명령줄로 전달된 파일의 백그라운드 디코딩 결과를 화면에 표시 (EDT에서 호출).
+     * @param file 명령줄로 전달된 파일
+     * @param decoded 디코딩 결과 (실패 시 null)
+     * @param error 디코딩 중 발생한 예외 (없으면 null)
+     * @param launchNanos main 진입 시각 (첫 화면 표시 시간 측정용)
+     */
+    private void showStartupImage(File file, StartupDecode decoded, Throwable error, long launchNanos) {
+        // 비동기 디코딩의 래퍼 예외를 벗겨 실제 입출력 오류 메시지를 표시
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause != null) {
+            JOptionPane.showMessageDialog(this, "이미지 불러오기 오류: " + cause.getMessage(), "불러오기 오류", JOptionPane.ERROR_MESSAGE);
+            statusBar.setText("이미지 불러오기 실패: " + file.getName());
+            cause.printStackTrace();
+            return;
+        }
+        if (decoded == null || (decoded.image == null && decoded.document == null)) {
+            JOptionPane.showMessageDialog(this, "지정한 파일을 이미지로 불러올 수 없습니다: " + file.getName(), "불러오기 오류", JOptionPane.ERROR_MESSAGE);
+            statusBar.setText("이미지 불러오기 실패: 유효한 이미지 파일이 아닙니다.");
+            return;
+        }
+        try {
+            if (decoded.document != null) {
+                showMultiFrameDocument(decoded.document);
+            } else {
+                showLoadedImage(decoded.image);
+                statusBar.setText("이미지 불러옴: " + file.getName());
+            }
+            // 이미지 설정이 성공한 뒤에만 등록 (페인트는 EDT에서 나중에 처리되므로 첫 페인트 시점을 그대로 측정)
+            imagePanel.runAfterNextPaint(() -> {
+                long elapsedMillis = (System.nanoTime() - launchNanos) / 1_000_000L;
+                statusBar.setText("이미지 불러옴: " + file.getName() + " (첫 화면 표시까지 " + elapsedMillis + " ms)");
+            });
+        } catch (OutOfMemoryError oom) {
+            handleOutOfMemory();
+            JOptionPane.showMessageDialog(this, "메모리가 부족하여 이미지를 불러올 수 없습니다.", "불러오기 오류", JOptionPane.ERROR_MESSAGE);
+            statusBar.setText("이미지 불러오기 실패 (메모리 부족).");
+        } catch (Exception ex) {
+            JOptionPane.showMessageDialog(this, "이미지 불러오는 중 알 수 없는 오류 발생: " + ex.getMessage(), "불러오기 오류", JOptionPane.ERROR_MESSAGE);
+            statusBar.setText("이미지 불러오기 실패 (알 수 없는 오류).");
+            ex.printStackTrace();
+        }
+    }
+
     /**
      * 이미지를 스크롤 패널 뷰포트 크기에 맞게 리사이즈 (비율 유지).
      * @param sourceImage 원본 이미지
@@ -420,9 +834,13 @@ public class MiniPhoto extends JFrame {
     private void resizeImageToFitPanel(BufferedImage sourceImage, boolean isUndoOrToggle) {
         if (sourceImage == null) return;
 
+        // 교체되는 작업 이미지는 화면에서 내려간 뒤 풀에 반환
+        BufferedImage replacedImage = currentImage;
+
         if (scrollPane == null || scrollPane.getViewport() == null) {
              currentImage = deepCopy(sourceImage);
              if (imagePanel != null) imagePanel.setImage(currentImage);
+             bufferPool.release(replacedImage);
              return;
         }
 
@@ -432,6 +850,7 @@ public class MiniPhoto extends JFrame {
         if (panelWidth <= 0 || panelHeight <= 0) {
             currentImage = deepCopy(sourceImage);
             if (imagePanel != null) imagePanel.setImage(currentImage);
+            bufferPool.release(replacedImage);
             return;
         }
 
@@ -441,29 +860,45 @@ public class MiniPhoto extends JFrame {
         if (imgWidth <= 0 || imgHeight <= 0) {
             currentImage = null;
             if(imagePanel != null) imagePanel.setImage(currentImage);
+            bufferPool.release(replacedImage);
             statusBar.setText("잘못된 크기의 이미지는 표시할 수 없습니다.");
             return;
         }
 
-        double scale = Math.min(1.0, Math.min((double) panelWidth / imgWidth, (double) panelHeight / imgHeight));
+        double scale = fitScale(imgWidth, imgHeight);
         int newWidth = (int) (imgWidth * scale);
         int newHeight = (int) (imgHeight * scale);
 
         if (newWidth <= 0 || newHeight <= 0) {
              currentImage = deepCopy(sourceImage);
         } else {
-            Image scaledImage = sourceImage.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
-            currentImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2d = currentImage.createGraphics();
-            g2d.drawImage(scaledImage, 0, 0, null);
-            g2d.dispose();
+            currentImage = Resampler.resize(sourceImage, newWidth, newHeight, resampleKernel, bufferPool);
         }
 
         if (imagePanel != null) imagePanel.setImage(currentImage);
+        if (replacedImage != sourceImage) bufferPool.release(replacedImage);
 
         if(!isUndoOrToggle) {
-             imageForGrayscaleToggle = deepCopy(currentImage);
+             imageForGrayscaleToggle = copyReusing(currentImage, imageForGrayscaleToggle);
+        }
+    }
+
+    /**
+     * 이미지를 뷰포트에 맞추기 위한 축소 비율 (확대하지 않음).
+     * 메모리 압박 시에는 작업 이미지(프록시) 픽셀 수 제한도 함께 적용합니다.
+     */
+    private double fitScale(int imgWidth, int imgHeight) {
+        int panelWidth = scrollPane.getViewport().getWidth();
+        int panelHeight = scrollPane.getViewport().getHeight();
+        double scale = 1.0;
+        if (panelWidth > 0 && panelHeight > 0 && imgWidth > 0 && imgHeight > 0) {
+            scale = Math.min(1.0, Math.min((double) panelWidth / imgWidth, (double) panelHeight / imgHeight));
+        }
+        double scaledPixels = imgWidth * scale * imgHeight * scale;
+        if (scaledPixels > proxyPixelLimit) {
+            scale *= Math.sqrt(proxyPixelLimit / scaledPixels);
         }
+        return scale;
     }
 
     /**
@@ -474,6 +909,10 @@ public class MiniPhoto extends JFrame {
             JOptionPane.showMessageDialog(this, "저장할 이미지가 없습니다.", "저장 오류", JOptionPane.WARNING_MESSAGE);
             return;
         }
+        if (multiFrameDocument != null) {
+            saveMultiFrameDocument();
+            return;
+        }
 
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("PNG 이미지 (*.png)", "png"));
@@ -496,18 +935,24 @@ public class MiniPhoto extends JFrame {
                 }
 
                 BufferedImage imageToSaveActual = currentImage;
+                BufferedImage scratchImage = null; // 형식 변환용 임시 버퍼 (풀에서 대여)
                 // JPG 저장 시 알파 채널 제거 (흰색 배경)
                 if ("jpg".equalsIgnoreCase(selectedExtension) || "jpeg".equalsIgnoreCase(selectedExtension)) {
                     if (currentImage.getType() != BufferedImage.TYPE_INT_RGB) {
-                        BufferedImage jpgImage = new BufferedImage(currentImage.getWidth(), currentImage.getHeight(), BufferedImage.TYPE_INT_RGB);
-                        Graphics2D g2d = jpgImage.createGraphics();
+                        scratchImage = bufferPool.acquire(currentImage.getWidth(), currentImage.getHeight(), BufferedImage.TYPE_INT_RGB);
+                        Graphics2D g2d = scratchImage.createGraphics();
                         g2d.drawImage(currentImage, 0, 0, Color.WHITE, null);
                         g2d.dispose();
-                        imageToSaveActual = jpgImage;
+                        imageToSaveActual = scratchImage;
                     }
                 }
 
-                boolean success = ImageIO.write(imageToSaveActual, selectedExtension, fileToSave);
+                boolean success;
+                try {
+                    success = ImageIO.write(imageToSaveActual, selectedExtension, fileToSave);
+                } finally {
+                    bufferPool.release(scratchImage);
+                }
                 if (success) {
                     statusBar.setText("이미지 저장됨: " + fileToSave.getName());
                 } else {
@@ -528,6 +973,165 @@ public class MiniPhoto extends JFrame {
         }
     }
 
+    /**
+     * 프리셋에 따라 여러 크기의 렌디션을 한 번에 내보내기.
+     * 편집 이미지의 스냅샷을 떠서 백그라운드에서 파생/인코딩하며, 끝나면 전체 소요 시간을 표시합니다.
+     */
+    private void exportRenditions() {
+        if (currentImage == null) {
+            JOptionPane.showMessageDialog(this, "내보낼 이미지가 없습니다.", "내보내기 오류", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        List<RenditionExporter.Rendition> presets = RenditionExporter.defaultPresets();
+        JTextField baseNameField = new JTextField("image", 20);
+        JPanel exportDialogPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc_dialog = new GridBagConstraints();
+        gbc_dialog.gridx = 0; gbc_dialog.gridy = 0; gbc_dialog.anchor = GridBagConstraints.WEST; gbc_dialog.insets = new Insets(5, 5, 5, 5);
+        exportDialogPanel.add(new JLabel("파일 이름:"), gbc_dialog);
+        gbc_dialog.gridx = 1; gbc_dialog.fill = GridBagConstraints.HORIZONTAL;
+        exportDialogPanel.add(baseNameField, gbc_dialog);
+        List<JCheckBox> presetCheckBoxes = new ArrayList<>();
+        for (RenditionExporter.Rendition preset : presets) {
+            JCheckBox presetCheckBox = new JCheckBox(preset.label, true);
+            presetCheckBoxes.add(presetCheckBox);
+            gbc_dialog.gridx = 1; gbc_dialog.gridy++; gbc_dialog.fill = GridBagConstraints.NONE;
+            exportDialogPanel.add(presetCheckBox, gbc_dialog);
+        }
+
+        int result = JOptionPane.showConfirmDialog(this, exportDialogPanel, "렌디션 내보내기", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            statusBar.setText("내보내기가 취소되었습니다.");
+            return;
+        }
+
+        List<RenditionExporter.Rendition> selected = new ArrayList<>();
+        for (int i = 0; i < presets.size(); i++) {
+            if (presetCheckBoxes.get(i).isSelected()) selected.add(presets.get(i));
+        }
+        String baseName = baseNameField.getText() == null ? "" : baseNameField.getText().trim();
+        if (selected.isEmpty() || baseName.isEmpty()) {
+            statusBar.setText("내보내기 취소: 파일 이름과 렌디션을 하나 이상 지정하세요.");
+            return;
+        }
+
+        JFileChooser directoryChooser = new JFileChooser();
+        directoryChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        directoryChooser.setDialogTitle("내보낼 폴더 선택");
+        if (directoryChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            statusBar.setText("내보내기가 취소되었습니다.");
+            return;
+        }
+        File directory = directoryChooser.getSelectedFile();
+
+        // 편집 전이면 화면 맞춤 전의 원본 해상도에서 렌디션을 만듦 (원본은 변경되지 않으므로 복사 불필요).
+        // 편집은 화면 맞춤된 작업 이미지에만 반영되어 있으므로, 편집 후에는 작업 이미지의 스냅샷을 사용
+        boolean editedSinceLoadAtStart = editedSinceLoad;
+        BufferedImage fullResolution = editedSinceLoadAtStart ? null : originalLoadedImage;
+        BufferedImage snapshot = fullResolution == null ? deepCopy(currentImage) : null;
+        BufferedImage source = fullResolution != null ? fullResolution : snapshot;
+        if (source == null) return;
+        Resampler.Kernel kernel = resampleKernel;
+        statusBar.setText("렌디션 " + selected.size() + "개 내보내는 중... (" + source.getWidth() + "x" + source.getHeight() + " 기준)");
+
+        new SwingWorker<RenditionExporter.Result, Void>() {
+            @Override
+            protected RenditionExporter.Result doInBackground() throws Exception {
+                return RenditionExporter.export(source, directory, baseName, selected, kernel);
+            }
+
+            @Override
+            protected void done() {
+                // export는 실패하더라도 인코딩 작업이 모두 끝난 뒤에 반환하므로 스냅샷을 풀에 돌려주어도 안전
+                if (snapshot != null) bufferPool.release(snapshot);
+                try {
+                    RenditionExporter.Result exportResult = get();
+                    StringBuilder message = new StringBuilder("렌디션 " + exportResult.files.size() + "개 내보냄: " + directory.getName()
+                        + " (" + source.getWidth() + "x" + source.getHeight() + " 기준, 총 " + exportResult.elapsedMillis + " ms)");
+                    if (fullResolution == null) {
+                        message.append(editedSinceLoadAtStart ? " - 편집된 이미지는 작업 해상도로 내보냅니다"
+                                                              : " - 원본 해상도 이미지가 없어 작업 해상도로 내보냅니다");
+                    }
+                    if (!exportResult.skipped.isEmpty()) {
+                        List<String> skippedLabels = new ArrayList<>();
+                        for (RenditionExporter.Rendition rendition : exportResult.skipped) skippedLabels.add(rendition.label);
+                        message.append(" - 앞선 렌디션과 크기·형식이 같아 건너뜀: ").append(String.join(", ", skippedLabels));
+                    }
+                    statusBar.setText(message.toString());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    Throwable cause = ex.getCause();
+                    if (cause instanceof OutOfMemoryError) handleOutOfMemory();
+                    JOptionPane.showMessageDialog(MiniPhoto.this, "렌디션 내보내기 오류: " + cause.getMessage(), "내보내기 오류", JOptionPane.ERROR_MESSAGE);
+                    statusBar.setText("렌디션 내보내기 실패.");
+                    cause.printStackTrace();
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 다중 프레임 문서 저장 (GIF, TIFF). 프레임을 하나씩 처리하여 작성기로 흘려보냅니다.
+     */
+    private void saveMultiFrameDocument() {
+        FileNameExtensionFilter gifFilter = new FileNameExtensionFilter("GIF 애니메이션 (*.gif)", "gif");
+        FileNameExtensionFilter tiffFilter = new FileNameExtensionFilter("다중 페이지 TIFF (*.tif)", "tif", "tiff");
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.addChoosableFileFilter(gifFilter);
+        fileChooser.addChoosableFileFilter(tiffFilter);
+        fileChooser.setFileFilter("gif".equals(multiFrameDocument.getFormatName()) ? gifFilter : tiffFilter);
+        fileChooser.setAcceptAllFileFilterUsed(false);
+
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File fileToSave = fileChooser.getSelectedFile();
+            String selectedExtension = fileChooser.getFileFilter() == gifFilter ? "gif" : "tif";
+            String lowerPath = fileToSave.getAbsolutePath().toLowerCase();
+            if (!lowerPath.endsWith("." + selectedExtension) && !("tif".equals(selectedExtension) && lowerPath.endsWith(".tiff"))) {
+                fileToSave = new File(fileToSave.getAbsolutePath() + "." + selectedExtension);
+            }
+
+            // 프레임 수만큼 인코딩이 이어지므로 작업 스레드에서 저장 (편집 상태는 시작 시점 기준)
+            MultiFrameDocument document = multiFrameDocument;
+            File targetFile = fileToSave;
+            statusBar.setText(document.getFrameCount() + "개 프레임 저장 중: " + targetFile.getName() + "...");
+
+            new SwingWorker<Long, Void>() {
+                @Override
+                protected Long doInBackground() throws Exception {
+                    long startNanos = System.nanoTime();
+                    document.write(targetFile, selectedExtension);
+                    return (System.nanoTime() - startNanos) / 1_000_000L;
+                }
+
+                @Override
+                protected void done() {
+                    try {
+                        long elapsedMillis = get();
+                        statusBar.setText(document.getFrameCount() + "개 프레임 저장됨: " + targetFile.getName() + " (" + elapsedMillis + " ms)");
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        Throwable cause = ex.getCause();
+                        if (cause instanceof OutOfMemoryError) {
+                            handleOutOfMemory();
+                            JOptionPane.showMessageDialog(MiniPhoto.this, "메모리가 부족하여 저장할 수 없습니다.", "저장 오류", JOptionPane.ERROR_MESSAGE);
+                            statusBar.setText("이미지 저장 실패 (메모리 부족).");
+                        } else if (cause instanceof IOException) {
+                            JOptionPane.showMessageDialog(MiniPhoto.this, "이미지 저장 오류 (파일 입출력): " + cause.getMessage(), "저장 오류", JOptionPane.ERROR_MESSAGE);
+                            statusBar.setText("이미지 저장 실패 (파일 입출력 오류).");
+                            cause.printStackTrace();
+                        } else {
+                            JOptionPane.showMessageDialog(MiniPhoto.this, "이미지 저장 중 알 수 없는 오류 발생: " + cause.getMessage(), "저장 오류", JOptionPane.ERROR_MESSAGE);
+                            statusBar.setText("이미지 저장 실패 (알 수 없는 오류).");
+                            cause.printStackTrace();
+                        }
+                    }
+                }
+            }.execute();
+        }
+    }
+
     /**
      * 흑백/컬러 변환 토글.
      */
@@ -536,7 +1140,44 @@ public class MiniPhoto extends JFrame {
             statusBar.setText("불러온 이미지가 없습니다.");
             return;
         }
+        if (multiFrameDocument != null && selectionMask != null) { // 다중 프레임 + 선택 영역: 모든 프레임의 선택 영역만 흑백
+            final SelectionMask mask = selectionMask;
+            multiFrameDocument.addOperation(OP_GRAYSCALE_SELECTION, frame -> {
+                applyGrayscaleInSelection(frame, mask);
+                return frame;
+            });
+            refreshFrameView();
+            brightnessSlider.setValue(0);
+            statusBar.setText("모든 프레임의 선택 영역에 흑백 필터가 적용되었습니다.");
+            return;
+        }
+        if (selectionMask != null) { // 선택 영역만 흑백 (컬러 복원은 실행 취소로)
+            if (currentImage.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+                statusBar.setText("이미 흑백 이미지입니다.");
+                return;
+            }
+            pushToUndoStack(currentImage);
+            applyGrayscaleInSelection(currentImage, selectionMask);
+            imagePanel.setImage(currentImage);
+            brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
+            brightnessSlider.setValue(0);
+            statusBar.setText("선택 영역에 흑백 필터가 적용되었습니다.");
+            return;
+        }
+        if (multiFrameDocument != null) { // 다중 프레임: 마지막 작업이 흑백이면 취소, 아니면 모든 프레임에 흑백 적용
+            if (OP_GRAYSCALE.equals(multiFrameDocument.getLastOperationName())) {
+                multiFrameDocument.undoLastOperation();
+                statusBar.setText("모든 프레임이 컬러로 복원되었습니다.");
+            } else {
+                multiFrameDocument.addOperation(OP_GRAYSCALE, MiniPhoto::toGrayscale);
+                statusBar.setText("흑백 필터가 모든 프레임에 적용되었습니다.");
+            }
+            refreshFrameView();
+            brightnessSlider.setValue(0);
+            return;
+        }
         pushToUndoStack(currentImage);
+        BufferedImage replacedImage = currentImage;
 
         if (currentImage.getType() == BufferedImage.TYPE_BYTE_GRAY || isEffectivelyGrayscale(currentImage)) {
             // 컬러로 복원
@@ -545,27 +1186,41 @@ public class MiniPhoto extends JFrame {
                 statusBar.setText("이미지가 컬러로 복원되었습니다.");
             } else {
                 statusBar.setText("원본 컬러 이미지가 없어 토글할 수 없습니다.");
-                if(!undoStack.isEmpty()) undoStack.pop();
+                discardLastUndoEntry();
                 return;
             }
         } else { // 흑백으로 변환
-            imageForGrayscaleToggle = deepCopy(currentImage); // 컬러 상태 백업
+            imageForGrayscaleToggle = copyReusing(currentImage, imageForGrayscaleToggle); // 컬러 상태 백업
 
-            BufferedImage grayscaleImage = new BufferedImage(
+            BufferedImage grayscaleImage = bufferPool.acquire(
                     currentImage.getWidth(),
                     currentImage.getHeight(),
                     BufferedImage.TYPE_BYTE_GRAY);
             Graphics2D g2d = grayscaleImage.createGraphics();
+            g2d.setColor(Color.BLACK); // 재사용 버퍼의 이전 내용 지우기
+            g2d.fillRect(0, 0, grayscaleImage.getWidth(), grayscaleImage.getHeight());
             g2d.drawImage(currentImage, 0, 0, null);
             g2d.dispose();
             currentImage = grayscaleImage;
             statusBar.setText("흑백 필터가 적용되었습니다.");
         }
         imagePanel.setImage(currentImage);
-        brightnessBaseImage = deepCopy(currentImage);
+        bufferPool.release(replacedImage);
+        brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
         brightnessSlider.setValue(0);
     }
 
+    /**
+     * 새 TYPE_BYTE_GRAY 이미지로 흑백 변환 (다중 프레임 작업용, 여러 스레드에서 호출 가능).
+     */
+    private static BufferedImage toGrayscale(BufferedImage source) {
+        BufferedImage grayscaleImage = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g2d = grayscaleImage.createGraphics();
+        g2d.drawImage(source, 0, 0, null);
+        g2d.dispose();
+        return grayscaleImage;
+    }
+
     /**
      * 이미지가 실질적으로 흑백인지 픽셀 샘플링으로 확인.
      */
@@ -591,6 +1246,7 @@ public class MiniPhoto extends JFrame {
             return;
         }
         isCropping = true;
+        isSelecting = false;
         isDrawing = false;
         drawCheckBox.setSelected(false);
         isInsertingText = false;
@@ -620,22 +1276,38 @@ public class MiniPhoto extends JFrame {
         if (x_coord + width > currentImage.getWidth()) width = currentImage.getWidth() - x_coord;
         if (y_coord + height > currentImage.getHeight()) height = currentImage.getHeight() - y_coord;
 
-        if (width > 0 && height > 0) {
+        if (width > 0 && height > 0 && multiFrameDocument != null) { // 다중 프레임: 모든 프레임에 같은 영역 자르기
+            final int cropX = x_coord, cropY = y_coord, cropWidth = width, cropHeight = height;
+            multiFrameDocument.addOperation(OP_CROP, frame -> {
+                // 비율이 다른 TIFF 페이지는 프록시보다 작을 수 있으므로 페이지 범위 안으로 제한
+                int x = Math.min(cropX, frame.getWidth() - 1);
+                int y = Math.min(cropY, frame.getHeight() - 1);
+                return frame.getSubimage(x, y,
+                    Math.max(1, Math.min(cropWidth, frame.getWidth() - x)),
+                    Math.max(1, Math.min(cropHeight, frame.getHeight() - y)));
+            });
+            refreshFrameView();
+            brightnessSlider.setValue(0);
+            statusBar.setText("모든 프레임이 " + width + "x" + height + " 크기로 잘렸습니다.");
+        } else if (width > 0 && height > 0) {
             pushToUndoStack(currentImage);
             try {
-                currentImage = currentImage.getSubimage(x_coord, y_coord, width, height);
-                imageForGrayscaleToggle = deepCopy(currentImage);
+                // 하위 이미지는 원본 래스터를 공유하므로 독립된 버퍼로 복사한 뒤 기존 버퍼를 반환
+                BufferedImage replacedImage = currentImage;
+                currentImage = deepCopy(currentImage.getSubimage(x_coord, y_coord, width, height));
+                imageForGrayscaleToggle = copyReusing(currentImage, imageForGrayscaleToggle);
                 imagePanel.setImage(currentImage);
-                brightnessBaseImage = deepCopy(currentImage);
+                bufferPool.release(replacedImage);
+                brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                 brightnessSlider.setValue(0);
                 statusBar.setText("이미지가 " + width + "x" + height + " 크기로 잘렸습니다.");
             } catch (RasterFormatException e_raster) {
                 statusBar.setText("자르기 실패: " + e_raster.getMessage());
-                if(!undoStack.isEmpty()) undoStack.pop();
+                discardLastUndoEntry();
                 e_raster.printStackTrace();
             } catch (Exception ex) {
                 statusBar.setText("자르기 중 알 수 없는 오류 발생: " + ex.getMessage());
-                if(!undoStack.isEmpty()) undoStack.pop();
+                discardLastUndoEntry();
                 ex.printStackTrace();
             }
         } else {
@@ -643,8 +1315,7 @@ public class MiniPhoto extends JFrame {
         }
         isCropping = false;
         imagePanel.setCursor(Cursor.getDefaultCursor());
-        imagePanel.setCropSelection(null);
-        imagePanel.repaint();
+        selectionOverlay.clearCropBounds();
         cropStartPoint = null;
         cropEndPoint = null;
     }
@@ -653,14 +1324,24 @@ public class MiniPhoto extends JFrame {
      * 실행 취소.
      */
     private void performUndo() {
+        if (multiFrameDocument != null) { // 다중 프레임: 기록된 마지막 작업 취소
+            if (multiFrameDocument.undoLastOperation()) {
+                refreshFrameView();
+                brightnessSlider.setValue(0);
+                statusBar.setText("실행 취소가 수행되었습니다.");
+            } else {
+                statusBar.setText("더 이상 실행 취소할 내용이 없습니다.");
+            }
+            return;
+        }
         if (undoStack.size() > 1) { // 현재 상태 + 이전 상태
-            undoStack.pop(); // 현재 상태 제거
+            bufferPool.release(undoStack.pop()); // 현재 상태 제거
             BufferedImage previousImage = undoStack.peek();
             if (previousImage != null) {
-                currentImage = deepCopy(previousImage);
+                currentImage = copyReusing(previousImage, currentImage);
                 imagePanel.setImage(currentImage);
-                imageForGrayscaleToggle = deepCopy(currentImage);
-                brightnessBaseImage = deepCopy(currentImage);
+                imageForGrayscaleToggle = copyReusing(currentImage, imageForGrayscaleToggle);
+                brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                 brightnessSlider.setValue(0);
                 statusBar.setText("실행 취소가 수행되었습니다.");
             } else {
@@ -669,10 +1350,10 @@ public class MiniPhoto extends JFrame {
         } else if (undoStack.size() == 1 ) { // 초기 상태만 존재
              BufferedImage initialImage = undoStack.peek();
              if (initialImage != null && currentImage != initialImage) {
-                currentImage = deepCopy(initialImage);
+                currentImage = copyReusing(initialImage, currentImage);
                 imagePanel.setImage(currentImage);
-                imageForGrayscaleToggle = deepCopy(currentImage);
-                brightnessBaseImage = deepCopy(currentImage);
+                imageForGrayscaleToggle = copyReusing(currentImage, imageForGrayscaleToggle);
+                brightnessBaseImage = copyReusing(currentImage, brightnessBaseImage);
                 brightnessSlider.setValue(0);
                 statusBar.setText("초기 상태로 되돌렸습니다.");
              } else if (initialImage == null){
@@ -686,12 +1367,23 @@ public class MiniPhoto extends JFrame {
     }
 
     /**
-     * BufferedImage 깊은 복사.
+     * BufferedImage 깊은 복사 (버퍼 풀에서 대상 버퍼를 가져옴).
      * @param bi 원본 BufferedImage
      * @return 복사된 BufferedImage, 실패 시 null
      */
     private BufferedImage deepCopy(BufferedImage bi) {
+        return copyReusing(bi, null);
+    }
+
+    /**
+     * 원본을 재사용 가능한 버퍼에 복사. 크기나 형식이 맞지 않으면 해당 버퍼는 풀에 반환하고 새 버퍼를 가져옴.
+     * @param bi 원본 BufferedImage
+     * @param reusable 덮어써도 되는 기존 버퍼 (null 허용, 다른 곳에서 참조 중이면 안 됨)
+     * @return 복사된 BufferedImage, 실패 시 null
+     */
+    private BufferedImage copyReusing(BufferedImage bi, BufferedImage reusable) {
         if (bi == null) return null;
+        if (bi == reusable) return reusable;
         int type = bi.getType();
         if (type == BufferedImage.TYPE_CUSTOM || type == 0) {
             type = BufferedImage.TYPE_INT_ARGB; // 호환성 및 투명도 지원
@@ -700,8 +1392,14 @@ public class MiniPhoto extends JFrame {
             System.err.println("이미지 깊은 복사 실패: 원본 이미지 크기가 유효하지 않음: " + bi.getWidth() + "x" + bi.getHeight());
             return null;
         }
-        BufferedImage newImage = new BufferedImage(bi.getWidth(), bi.getHeight(), type);
+        BufferedImage newImage = reusable;
+        if (newImage == null || newImage.getWidth() != bi.getWidth() || newImage.getHeight() != bi.getHeight() || newImage.getType() != type) {
+            bufferPool.release(reusable);
+            newImage = acquireBuffer(bi.getWidth(), bi.getHeight(), type);
+            if (newImage == null) return null;
+        }
         Graphics2D g = newImage.createGraphics();
+        g.setComposite(AlphaComposite.Src); // 재사용 버퍼의 이전 내용을 그대로 덮어씀
         g.drawImage(bi, 0, 0, null);
         g.dispose();
         return newImage;
@@ -715,22 +1413,166 @@ public class MiniPhoto extends JFrame {
             BufferedImage copy = deepCopy(imageToPush);
             if (copy != null) {
                 undoStack.push(copy);
+                trimUndoStack(maxUndoDepth());
+                editedSinceLoad = true; // 실행 취소 기록은 편집 직전에만 추가됨
             } else {
                 System.err.println("실행 취소 스택에 추가 실패: deepCopy가 null을 반환했습니다.");
             }
         }
     }
 
+    /**
+     * 실패한 작업을 위해 방금 추가한 실행 취소 항목을 제거하고 버퍼를 풀에 반환.
+     */
+    private void discardLastUndoEntry() {
+        if (!undoStack.isEmpty()) bufferPool.release(undoStack.pop());
+    }
+
+    /**
+     * 실행 취소 스택을 비우고 모든 항목을 풀에 반환.
+     */
+    private void clearUndoStack() {
+        while (!undoStack.isEmpty()) bufferPool.release(undoStack.pop());
+    }
+
+    /**
+     * 가장 오래된 실행 취소 항목부터 제거하여 스택 깊이를 제한.
+     * @param maxDepth 유지할 최대 항목 수
+     */
+    private void trimUndoStack(int maxDepth) {
+        while (undoStack.size() > maxDepth) {
+            undoStack.remove(0); // Stack의 0번 요소가 가장 오래된 항목
+        }
+    }
+
+    /**
+     * 현재 메모리 압박 단계에서 허용하는 실행 취소 깊이.
+     */
+    private int maxUndoDepth() {
+        if (memoryGovernor == null) return Integer.MAX_VALUE;
+        switch (memoryGovernor.getLevel()) {
+            case CRITICAL: return CRITICAL_UNDO_DEPTH;
+            case ELEVATED: return ELEVATED_UNDO_DEPTH;
+            default: return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * 버퍼 풀에서 버퍼를 가져오되, 메모리 부족 시 캐시를 비우고 한 번 더 시도.
+     * @return 버퍼, 재시도 후에도 메모리가 부족하면 null
+     */
+    private BufferedImage acquireBuffer(int width, int height, int type) {
+        try {
+            return bufferPool.acquire(width, height, type);
+        } catch (OutOfMemoryError oom) {
+            handleOutOfMemory();
+        }
+        try {
+            return bufferPool.acquire(width, height, type);
+        } catch (OutOfMemoryError oom) {
+            System.err.println("메모리 부족으로 이미지 버퍼 할당 실패: " + width + "x" + height);
+            statusBar.setText("메모리가 부족하여 작업을 수행할 수 없습니다.");
+            return null;
+        }
+    }
+
+    /**
+     * 실제 OutOfMemoryError 발생 시 즉시 위험 단계 조치를 수행하고 관리자에 알림.
+     * 호출 직후 재시도할 수 있도록 조치는 여기서 바로 수행하고, 관리자는 단계만 전환합니다 (콜백 중복 없음).
+     */
+    private void handleOutOfMemory() {
+        handleMemoryPressure(MemoryGovernor.Level.CRITICAL);
+        if (memoryGovernor != null) memoryGovernor.reportOutOfMemory();
+    }
+
+    /**
+     * 메모리 압박 단계에 따른 단계별 대응.
+     * 주의: 실행 취소 깊이 축소, 풀 한도 축소와 미리보기 버퍼 비우기, 원본 디코딩 이미지 해제,
+     *       프록시 해상도 제한 (열려 있는 작업 이미지도 제한보다 크면 즉시 축소).
+     * 위험: 위 조치에 더해 풀 사용 중지, 그레이스케일 백업/밝기 기준 이미지 같은 파생 복사본 제거 (필요 시 다시 생성).
+     */
+    private void handleMemoryPressure(MemoryGovernor.Level level) {
+        if (level == MemoryGovernor.Level.NORMAL) {
+            proxyPixelLimit = Long.MAX_VALUE;
+            bufferPool.setMaxRetainedBytes(PixelBufferPool.defaultBudgetBytes());
+            if (multiFrameDocument != null) multiFrameDocument.setCacheCapacity(MultiFrameDocument.DEFAULT_CACHE_FRAMES);
+            statusBar.setText("메모리 여유가 회복되었습니다. " + heapUsageText());
+            return;
+        }
+
+        boolean critical = level == MemoryGovernor.Level.CRITICAL;
+        trimUndoStack(critical ? CRITICAL_UNDO_DEPTH : ELEVATED_UNDO_DEPTH);
+        // 한도를 낮춰 두어야 이후 반환되는 버퍼로 풀이 다시 차지 않음
+        bufferPool.setMaxRetainedBytes(critical ? 0L : PixelBufferPool.defaultBudgetBytes() / ELEVATED_POOL_DIVISOR);
+        brightnessPreviewImage = null;
+        proxyPixelLimit = critical ? CRITICAL_PROXY_PIXELS : ELEVATED_PROXY_PIXELS;
+        if (multiFrameDocument != null) multiFrameDocument.setCacheCapacity(critical ? 1 : 2);
+        // 원본 디코딩 결과는 가장 큰 버퍼이지만 첫 화면 맞춤 이후에는 쓰이지 않음
+        originalLoadedImage = null;
+
+        if (critical) {
+            imageForGrayscaleToggle = null;
+            brightnessBaseImage = null;
+        }
+        refitToProxyLimit();
+
+        if (critical) {
+            statusBar.setText("경고: 메모리가 매우 부족합니다. 실행 취소 기록과 캐시를 정리했습니다. " + heapUsageText());
+        } else {
+            statusBar.setText("주의: 메모리 사용량이 높습니다. 실행 취소 기록을 " + ELEVATED_UNDO_DEPTH + "단계로 줄였습니다. " + heapUsageText());
+        }
+    }
+
+    /**
+     * 작업 이미지가 프록시 픽셀 제한보다 크면 제한에 맞게 축소.
+     * 그레이스케일 백업과 밝기 기준 이미지도 같은 크기로 맞춥니다.
+     * 다중 프레임 문서는 기록된 작업(자르기 좌표 등)이 현재 프록시 크기 기준이므로 캐시 축소만 적용합니다.
+     */
+    private void refitToProxyLimit() {
+        if (currentImage == null || multiFrameDocument != null) return;
+        int oldWidth = currentImage.getWidth();
+        int oldHeight = currentImage.getHeight();
+        long pixels = (long) oldWidth * oldHeight;
+        if (pixels <= proxyPixelLimit) return;
+
+        double scale = Math.sqrt((double) proxyPixelLimit / pixels);
+        int newWidth = Math.max(1, (int) (oldWidth * scale));
+        int newHeight = Math.max(1, (int) (oldHeight * scale));
+        try {
+            // 압박 상태이므로 교체된 버퍼는 풀에 돌려주지 않고 바로 해제되도록 둠
+            currentImage = Resampler.resize(currentImage, newWidth, newHeight, resampleKernel);
+            imagePanel.setImage(currentImage);
+            if (imageForGrayscaleToggle != null && imageForGrayscaleToggle.getWidth() == oldWidth && imageForGrayscaleToggle.getHeight() == oldHeight) {
+                imageForGrayscaleToggle = Resampler.resize(imageForGrayscaleToggle, newWidth, newHeight, resampleKernel);
+            }
+            if (brightnessBaseImage != null && brightnessBaseImage.getWidth() == oldWidth && brightnessBaseImage.getHeight() == oldHeight) {
+                brightnessBaseImage = Resampler.resize(brightnessBaseImage, newWidth, newHeight, resampleKernel);
+            }
+            System.err.println("메모리 압박으로 작업 이미지 축소: " + oldWidth + "x" + oldHeight + " -> " + newWidth + "x" + newHeight);
+        } catch (OutOfMemoryError oom) {
+            System.err.println("메모리 부족으로 작업 이미지 축소 실패: " + oldWidth + "x" + oldHeight);
+        }
+    }
+
+    /**
+     * 현재 힙 사용량 표시 문자열.
+     */
+    private String heapUsageText() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        long maxMb = runtime.maxMemory() / (1024 * 1024);
+        return "(힙 " + usedMb + "MB / " + maxMb + "MB)";
+    }
+
     /**
      * 이미지를 화면에 표시하는 커스텀 JPanel.
-     * 자르기/텍스트 선택 영역 표시 기능 포함.
+     * 자르기/텍스트/선택 영역은 위에 겹친 SelectionOverlay가 그립니다.
      */
     private class ImagePanel extends JPanel {
         @Serial
         private static final long serialVersionUID = 1L;
         private BufferedImage imageToDisplay;
-        private Rectangle cropSelection; // 자르기 선택 영역 (이미지 좌표)
-        private Rectangle textSelectionRectangleToDraw; // 텍스트 삽입 영역 (이미지 좌표)
+        private Runnable afterNextPaint; // 다음 이미지 페인트 직후 1회 실행할 작업
 
         public ImagePanel() { }
 
@@ -739,6 +1581,8 @@ public class MiniPhoto extends JFrame {
          */
         public void setImage(BufferedImage img) {
             this.imageToDisplay = img;
+            // 크기가 달라진 이미지에는 기존 선택 영역이 맞지 않으므로 해제
+            if (selectionMask != null && !selectionMask.matches(img)) selectionMask = null;
             if (img != null && img.getWidth() > 0 && img.getHeight() > 0) {
                 setPreferredSize(new Dimension(img.getWidth(), img.getHeight()));
             } else {
@@ -748,9 +1592,36 @@ public class MiniPhoto extends JFrame {
             repaint();
         }
 
-        public void setCropSelection(Rectangle selection) { this.cropSelection = selection; }
-        public void setTextSelectionRectangleToDraw(Rectangle rect) { this.textSelectionRectangleToDraw = rect; }
-        public Rectangle getTextSelectionRectangleToDraw() { return this.textSelectionRectangleToDraw; }
+        /**
+         * 이미지 일부만 바뀐 경우 해당 영역만 다시 그림 (이미지 좌표). 다른 이미지면 전체 갱신.
+         */
+        public void updateImageRegion(BufferedImage img, Rectangle imageRegion) {
+            if (img != imageToDisplay) {
+                setImage(img);
+                return;
+            }
+            int x_coord = (getWidth() - img.getWidth()) / 2;
+            int y_coord = (getHeight() - img.getHeight()) / 2;
+            repaint(imageRegion.x + x_coord, imageRegion.y + y_coord, imageRegion.width, imageRegion.height);
+        }
+
+        /**
+         * 표시 중인 이미지가 차지하는 패널 영역을 out에 기록.
+         * @return 표시할 이미지가 없으면 false
+         */
+        public boolean getImageBounds(Rectangle out) {
+            if (imageToDisplay == null || imageToDisplay.getWidth() <= 0 || imageToDisplay.getHeight() <= 0) {
+                return false;
+            }
+            out.setBounds((getWidth() - imageToDisplay.getWidth()) / 2, (getHeight() - imageToDisplay.getHeight()) / 2,
+                          imageToDisplay.getWidth(), imageToDisplay.getHeight());
+            return true;
+        }
+
+        /**
+         * 이미지가 실제로 화면에 그려진 직후 한 번 실행할 작업 등록 (시작 시간 측정용).
+         */
+        public void runAfterNextPaint(Runnable task) { this.afterNextPaint = task; }
 
         /**
          * 패널 좌표를 이미지 내부 좌표로 변환 (이미지 중앙 정렬 고려).
@@ -778,28 +1649,10 @@ public class MiniPhoto extends JFrame {
                 int y_coord = (getHeight() - imageToDisplay.getHeight()) / 2;
                 g.drawImage(imageToDisplay, x_coord, y_coord, this); // 이미지 중앙에 그리기
 
-                // 자르기 선택 영역 표시
-                if (isCropping && cropSelection != null && cropSelection.width > 0 && cropSelection.height > 0) {
-                    Graphics2D g2d = (Graphics2D) g.create();
-                    g2d.setColor(new Color(0, 0, 255, 100)); // 반투명 파란색
-                    Rectangle panelCropRect = new Rectangle(
-                        cropSelection.x + x_coord, cropSelection.y + y_coord,
-                        cropSelection.width, cropSelection.height);
-                    g2d.fill(panelCropRect);
-                    g2d.setColor(Color.BLUE);
-                    g2d.draw(panelCropRect);
-                    g2d.dispose();
-                }
-
-                // 텍스트 영역 정의 시 테두리 표시
-                if (isDefiningTextBounds && textSelectionRectangleToDraw != null && textSelectionRectangleToDraw.width > 0 && textSelectionRectangleToDraw.height > 0) {
-                    Graphics2D g2d = (Graphics2D) g.create();
-                    g2d.setColor(new Color(255, 0, 0, 100)); // 반투명 빨간색
-                     Rectangle panelTextRect = new Rectangle(
-                        textSelectionRectangleToDraw.x + x_coord, textSelectionRectangleToDraw.y + y_coord,
-                        textSelectionRectangleToDraw.width, textSelectionRectangleToDraw.height);
-                    g2d.draw(panelTextRect); // 테두리만
-                    g2d.dispose();
+                if (afterNextPaint != null) {
+                    Runnable task = afterNextPaint;
+                    afterNextPaint = null;
+                    SwingUtilities.invokeLater(task);
                 }
             } else { // 이미지 없을 시 안내 메시지
                 g.setColor(Color.LIGHT_GRAY);
@@ -810,17 +1663,263 @@ public class MiniPhoto extends JFrame {
         }
     }
 
+    /**
+     * 이미지 패널 위에 겹쳐 자르기/텍스트/선택 영역을 그리는 투명 레이어.
+     * 드래그 중에는 이전에 그린 영역과 새 영역을 합친 부분만 다시 그리도록 요청하므로,
+     * 아래 이미지도 그 부분만 다시 복사되고 나머지 화면은 건드리지 않습니다.
+     * 드래그마다 객체를 만들지 않도록 모든 사각형은 필드로 재사용합니다 (EDT 전용).
+     */
+    private class SelectionOverlay extends JComponent {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private static final int HANDLE_SIZE = 7; // 조절점 한 변 (픽셀)
+        private static final int PADDING = HANDLE_SIZE / 2 + 2; // 조절점과 선 두께만큼 다시 그릴 여유
+        private final Color dimColor = new Color(0, 0, 0, 110); // 자르기 영역 밖 어둡게
+        private final Color guideColor = new Color(255, 255, 255, 140); // 3분할 안내선
+        private final Color textBoundsColor = new Color(255, 0, 0, 100); // 반투명 빨간색
+        private final Stroke dashedStroke = new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f, new float[]{4f, 4f}, 0f);
+
+        private final Rectangle cropBounds = new Rectangle(); // 자르기 선택 영역 (이미지 좌표)
+        private final Rectangle textBounds = new Rectangle(); // 텍스트 삽입 영역 (이미지 좌표)
+        private final Rectangle imageArea = new Rectangle();  // 이미지가 그려진 패널 영역
+        private final Rectangle paintedArea = new Rectangle(); // 마지막으로 그린 내용 범위 (패널 좌표)
+        private final Rectangle nextArea = new Rectangle();
+        private final Rectangle dirtyArea = new Rectangle();
+        private boolean dimPainted; // 자르기 영역 밖을 어둡게 칠한 상태인지
+
+        SelectionOverlay() {
+            setOpaque(false);
+        }
+
+        void setCropBounds(int x, int y, int width, int height) {
+            cropBounds.setBounds(x, y, width, height);
+            refresh();
+        }
+
+        void clearCropBounds() {
+            cropBounds.setBounds(0, 0, 0, 0);
+            refresh();
+        }
+
+        void setTextBounds(int x, int y, int width, int height) {
+            textBounds.setBounds(x, y, width, height);
+            refresh();
+        }
+
+        void clearTextBounds() {
+            textBounds.setBounds(0, 0, 0, 0);
+            refresh();
+        }
+
+        /**
+         * 현재 텍스트 삽입 영역의 복사본 (이미지 좌표).
+         */
+        Rectangle getTextBounds() {
+            return new Rectangle(textBounds);
+        }
+
+        private boolean isCropVisible() {
+            return isCropping && cropBounds.width > 0 && cropBounds.height > 0;
+        }
+
+        private boolean isTextBoundsVisible() {
+            return isDefiningTextBounds && textBounds.width > 0 && textBounds.height > 0;
+        }
+
+        private Shape currentSelectionOutline() {
+            return isDefiningSelection ? selectionDraftShape
+                 : (selectionMask != null ? selectionMask.getShape() : null);
+        }
+
+        /**
+         * 표시 내용이 바뀐 뒤 호출. 이전 범위와 새 범위의 합집합만 다시 그리도록 요청합니다.
+         * 자르기 영역 밖 어둡게 표시가 켜지거나 꺼질 때만 이미지 전체를 다시 그립니다.
+         */
+        void refresh() {
+            nextArea.setBounds(0, 0, 0, 0);
+            boolean dim = false;
+            if (imagePanel.getImageBounds(imageArea)) {
+                if (isCropVisible()) {
+                    dim = true;
+                    include(nextArea, cropBounds.x, cropBounds.y, cropBounds.width, cropBounds.height);
+                }
+                if (isTextBoundsVisible()) {
+                    include(nextArea, textBounds.x, textBounds.y, textBounds.width, textBounds.height);
+                }
+                Shape outline = currentSelectionOutline();
+                if (outline != null) {
+                    if (outline instanceof RectangularShape) {
+                        RectangularShape r = (RectangularShape) outline;
+                        include(nextArea, (int) r.getX(), (int) r.getY(), (int) Math.ceil(r.getWidth()), (int) Math.ceil(r.getHeight()));
+                    } else {
+                        Rectangle b = outline.getBounds();
+                        include(nextArea, b.x, b.y, b.width, b.height);
+                    }
+                }
+            }
+
+            if (dim != dimPainted) {
+                dimPainted = dim;
+                repaint();
+            } else {
+                dirtyArea.setBounds(paintedArea);
+                unionInto(dirtyArea, nextArea);
+                if (!dirtyArea.isEmpty()) repaint(dirtyArea.x, dirtyArea.y, dirtyArea.width, dirtyArea.height);
+            }
+            paintedArea.setBounds(nextArea);
+        }
+
+        /**
+         * 이미지 좌표 사각형을 조절점 여유를 포함한 패널 좌표로 바꿔 target에 합침.
+         */
+        private void include(Rectangle target, int x, int y, int width, int height) {
+            int left = imageArea.x + x - PADDING;
+            int top = imageArea.y + y - PADDING;
+            int right = imageArea.x + x + width + PADDING + 1;
+            int bottom = imageArea.y + y + height + PADDING + 1;
+            if (target.isEmpty()) {
+                target.setBounds(left, top, right - left, bottom - top);
+            } else {
+                target.add(left, top);
+                target.add(right, bottom);
+            }
+        }
+
+        private void unionInto(Rectangle target, Rectangle other) {
+            if (other.isEmpty()) return;
+            if (target.isEmpty()) {
+                target.setBounds(other);
+            } else {
+                target.add(other);
+            }
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            if (!imagePanel.getImageBounds(imageArea)) return;
+            Graphics2D g2d = (Graphics2D) g.create();
+            int ox = imageArea.x;
+            int oy = imageArea.y;
+
+            // 자르기: 영역 밖 어둡게, 3분할 안내선, 테두리와 조절점
+            if (isCropVisible()) {
+                int cx = ox + cropBounds.x, cy = oy + cropBounds.y;
+                int cw = cropBounds.width, ch = cropBounds.height;
+                int imageRight = ox + imageArea.width, imageBottom = oy + imageArea.height;
+                g2d.setColor(dimColor);
+                g2d.fillRect(ox, oy, imageArea.width, cy - oy);                       // 위
+                g2d.fillRect(ox, cy + ch, imageArea.width, imageBottom - (cy + ch));  // 아래
+                g2d.fillRect(ox, cy, cx - ox, ch);                                    // 왼쪽
+                g2d.fillRect(cx + cw, cy, imageRight - (cx + cw), ch);                // 오른쪽
+
+                g2d.setColor(guideColor);
+                for (int i = 1; i <= 2; i++) {
+                    g2d.drawLine(cx + cw * i / 3, cy, cx + cw * i / 3, cy + ch);
+                    g2d.drawLine(cx, cy + ch * i / 3, cx + cw, cy + ch * i / 3);
+                }
+                g2d.setColor(Color.BLUE);
+                g2d.drawRect(cx, cy, cw, ch);
+                paintHandles(g2d, cx, cy, cw, ch, Color.BLUE);
+            }
+
+            // 텍스트 영역 정의 시 테두리와 모서리 조절점
+            if (isTextBoundsVisible()) {
+                int tx = ox + textBounds.x, ty = oy + textBounds.y;
+                g2d.setColor(textBoundsColor);
+                g2d.drawRect(tx, ty, textBounds.width, textBounds.height);
+                paintHandles(g2d, tx, ty, textBounds.width, textBounds.height, Color.RED);
+            }
+
+            // 선택 영역 윤곽선 (검정 실선 위 흰 점선)
+            Shape outline = currentSelectionOutline();
+            if (outline != null) {
+                g2d.translate(ox, oy);
+                g2d.setColor(Color.BLACK);
+                g2d.draw(outline);
+                g2d.setColor(Color.WHITE);
+                g2d.setStroke(dashedStroke);
+                g2d.draw(outline);
+            }
+            g2d.dispose();
+        }
+
+        /**
+         * 사각형의 모서리와 변 중앙에 조절점 8개 표시.
+         */
+        private void paintHandles(Graphics2D g2d, int x, int y, int width, int height, Color outlineColor) {
+            int half = HANDLE_SIZE / 2;
+            for (int row = 0; row <= 2; row++) {
+                for (int col = 0; col <= 2; col++) {
+                    if (row == 1 && col == 1) continue;
+                    int hx = x + width * col / 2 - half;
+                    int hy = y + height * row / 2 - half;
+                    g2d.setColor(Color.WHITE);
+                    g2d.fillRect(hx, hy, HANDLE_SIZE, HANDLE_SIZE);
+                    g2d.setColor(outlineColor);
+                    g2d.drawRect(hx, hy, HANDLE_SIZE, HANDLE_SIZE);
+                }
+            }
+        }
+    }
+
+    /**
+     * 명령줄 파일의 백그라운드 디코딩 결과 (단일 이미지 또는 다중 프레임 문서 중 하나).
+     */
+    private static final class StartupDecode {
+        final BufferedImage image;
+        final MultiFrameDocument document;
+
+        StartupDecode(BufferedImage image, MultiFrameDocument document) {
+            this.image = image;
+            this.document = document;
+        }
+    }
+
     /**
      * 애플리케이션 실행 (main 메서드).
+     * 명령줄로 이미지 파일 경로를 전달하면 UI 구성과 동시에 백그라운드에서 디코딩을 시작하고,
+     * 두 작업이 모두 끝나는 즉시 이미지를 표시합니다.
      */
     public static void main(String[] args) {
+        final long launchNanos = System.nanoTime();
+
+        // 명령줄 파일 디코딩은 L&F 설정 및 프레임 생성과 병렬로 진행
+        final File startupFile = args.length > 0 ? new File(args[0]) : null;
+        CompletableFuture<StartupDecode> decodeFuture = null;
+        if (startupFile != null) {
+            decodeFuture = CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (MultiFrameDocument.isMultiFrameCandidate(startupFile)) {
+                        MultiFrameDocument document = MultiFrameDocument.openIfMultiFrame(startupFile);
+                        if (document != null) {
+                            document.prefetchFrame(0);
+                            return new StartupDecode(null, document);
+                        }
+                    }
+                    return new StartupDecode(ImageIO.read(startupFile), null);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (args.length > 1) {
+                System.err.println("첫 번째 파일만 엽니다. 무시된 파일 수: " + (args.length - 1));
+            }
+        }
+
+        CompletableFuture<MiniPhoto> frameFuture = new CompletableFuture<>();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); // 시스템 기본 L&F 적용
             } catch (Exception e) {
                 System.err.println("시스템 Look and Feel 설정 실패: " + e.getMessage());
             }
-            new MiniPhoto();
+            frameFuture.complete(new MiniPhoto());
         });
+
+        if (decodeFuture != null) {
+            decodeFuture.whenComplete((decoded, error) ->
+                frameFuture.thenAccept(frame -> SwingUtilities.invokeLater(() ->
+                    frame.showStartupImage(startupFile, decoded, error, launchNanos))));
+        }
     }
 }
@@ -0,0 +1,545 @@
+// --- 자바 AWT 관련 그래픽 및 이미지 처리 임포트 ---
+import java.awt.*;
+import java.awt.image.*;
+
+// --- 이미지 입출력 관련 임포트 ---
+import javax.imageio.*;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+// --- 파일 입출력 관련 임포트 ---
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * 여러 프레임(애니메이션 GIF, 다중 페이지 TIFF)으로 이루어진 이미지 문서.
+ * 프레임은 필요할 때 ImageReader로 하나씩 디코딩하며, 최근 사용한 프레임만 LRU 캐시에 보관합니다.
+ * 편집 작업은 프레임에 바로 적용하지 않고 작업 목록으로 기록해 두었다가,
+ * 화면 표시나 저장 시 각 프레임에 (저장 시에는 여러 프레임을 병렬로) 적용합니다.
+ * 저장은 프레임 단위로 작성기에 흘려보내므로 전체 프레임을 한꺼번에 메모리에 올리지 않습니다.
+ */
+final class MultiFrameDocument implements Closeable {
+
+    static final int DEFAULT_CACHE_FRAMES = 8; // 기본 프레임 캐시 크기
+
+    private static final String GIF_IMAGE_METADATA = "javax_imageio_gif_image_1.0";
+    private static final String GIF_STREAM_METADATA = "javax_imageio_gif_stream_1.0";
+
+    /** GIF 프레임 처리 방식 (disposalMethod). */
+    private enum Disposal { NONE, RESTORE_TO_BACKGROUND, RESTORE_TO_PREVIOUS }
+
+    /** GIF 프레임 위치, 크기, 처리 방식, 지연 시간 (1/100초). */
+    private static final class FrameInfo {
+        int x, y, width, height;
+        Disposal disposal = Disposal.NONE;
+        int delayTime;
+    }
+
+    /** 이름이 붙은 편집 작업 (실행 취소/토글 판단용). */
+    private static final class Operation {
+        final String name;
+        final UnaryOperator<BufferedImage> function;
+
+        Operation(String name, UnaryOperator<BufferedImage> function) {
+            this.name = name;
+            this.function = function;
+        }
+    }
+
+    private final File file;
+    private final ImageInputStream input;
+    private final ImageReader reader;
+    private final int frameCount;
+    private final boolean animatedGif; // GIF는 이전 프레임 위에 합성해야 함
+    private final int canvasWidth;
+    private final int canvasHeight;
+    private final FrameInfo[] frameInfos; // 필요할 때 채움
+    private int loopCount; // GIF 반복 횟수 (0 = 무한)
+
+    private int cacheCapacity = DEFAULT_CACHE_FRAMES;
+    private final LinkedHashMap<Integer, BufferedImage> frameCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+            return size() > cacheCapacity;
+        }
+    };
+
+    private final List<Operation> operations = new ArrayList<>();
+    private int proxyWidth;
+    private int proxyHeight;
+    private Resampler.Kernel kernel = Resampler.Kernel.LANCZOS3;
+    private boolean closed; // 저장 도중 문서가 닫혔는지 확인용
+
+    private MultiFrameDocument(File file, ImageInputStream input, ImageReader reader, int frameCount) throws IOException {
+        this.file = file;
+        this.input = input;
+        this.reader = reader;
+        this.frameCount = frameCount;
+        this.animatedGif = "gif".equalsIgnoreCase(reader.getFormatName());
+        this.frameInfos = new FrameInfo[frameCount];
+
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if (animatedGif) {
+            IIOMetadata streamMetadata = reader.getStreamMetadata();
+            Node screen = streamMetadata != null ? findChild(streamMetadata.getAsTree(GIF_STREAM_METADATA), "LogicalScreenDescriptor") : null;
+            if (screen != null) {
+                width = Math.max(width, intAttribute(screen, "logicalScreenWidth", 0));
+                height = Math.max(height, intAttribute(screen, "logicalScreenHeight", 0));
+            }
+        }
+        this.canvasWidth = width;
+        this.canvasHeight = height;
+        this.proxyWidth = width;
+        this.proxyHeight = height;
+    }
+
+    /**
+     * 파일을 다중 프레임 문서로 열기. 프레임이 하나뿐이거나 읽을 수 없는 형식이면 null을 반환합니다.
+     * @param file 열 파일
+     * @return 다중 프레임 문서 또는 null
+     */
+    static MultiFrameDocument openIfMultiFrame(File file) throws IOException {
+        ImageInputStream input = ImageIO.createImageInputStream(file);
+        if (input == null) throw new IOException("파일을 열 수 없습니다: " + file.getName());
+
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            input.close();
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, false, false); // 임의 접근 허용, 메타데이터 유지
+            int count = reader.getNumImages(true); // 헤더만 훑으며 프레임 수 계산 (디코딩 없음)
+            if (count > 1) {
+                return new MultiFrameDocument(file, input, reader, count);
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.dispose();
+            input.close();
+            throw e;
+        }
+        reader.dispose();
+        input.close();
+        return null;
+    }
+
+    /**
+     * 다중 프레임 형식일 수 있는 파일 확장자인지 확인.
+     */
+    static boolean isMultiFrameCandidate(File file) {
+        String name = file.getName().toLowerCase();
+        return name.endsWith(".gif") || name.endsWith(".tif") || name.endsWith(".tiff");
+    }
+
+    String getFileName() { return file.getName(); }
+    int getFrameCount() { return frameCount; }
+    int getCanvasWidth() { return canvasWidth; }
+    int getCanvasHeight() { return canvasHeight; }
+
+    /**
+     * 원본 형식 이름 (저장 시 기본 형식으로 사용).
+     */
+    String getFormatName() {
+        return animatedGif ? "gif" : "tif";
+    }
+
+    /**
+     * 화면 편집용 프록시 크기와 리샘플링 커널 설정. 모든 프레임은 이 크기로 줄인 뒤 편집 작업이 적용됩니다.
+     * 다중 페이지 TIFF에서 페이지 크기가 서로 다르면 각 페이지를 자체 비율을 유지한 채 프록시 크기 안에 맞춥니다.
+     */
+    synchronized void setProxySize(int width, int height, Resampler.Kernel kernel) {
+        this.proxyWidth = Math.max(1, width);
+        this.proxyHeight = Math.max(1, height);
+        this.kernel = kernel;
+    }
+
+    /**
+     * 편집 작업을 모든 프레임에 적용되도록 기록.
+     * @param name 작업 이름
+     * @param function 프레임을 받아 결과 프레임을 돌려주는 함수 (여러 스레드에서 동시에 호출될 수 있음)
+     */
+    synchronized void addOperation(String name, UnaryOperator<BufferedImage> function) {
+        operations.add(new Operation(name, function));
+    }
+
+    /**
+     * 마지막 편집 작업 이름 (없으면 null).
+     */
+    synchronized String getLastOperationName() {
+        return operations.isEmpty() ? null : operations.get(operations.size() - 1).name;
+    }
+
+    /**
+     * 마지막 편집 작업 취소.
+     * @return 취소할 작업이 있었으면 true
+     */
+    synchronized boolean undoLastOperation() {
+        if (operations.isEmpty()) return false;
+        operations.remove(operations.size() - 1);
+        return true;
+    }
+
+    /**
+     * 프레임 캐시 크기 변경 (메모리 압박 시 축소).
+     */
+    synchronized void setCacheCapacity(int capacity) {
+        cacheCapacity = Math.max(1, capacity);
+        Iterator<Integer> it = frameCache.keySet().iterator();
+        while (frameCache.size() > cacheCapacity && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * 프레임을 미리 디코딩하여 캐시에 넣어 둠 (화면 준비와 병렬로 호출 가능).
+     */
+    synchronized void prefetchFrame(int index) throws IOException {
+        compositedFrame(index);
+    }
+
+    /**
+     * 지정한 프레임을 프록시 크기로 줄이고 기록된 편집 작업을 모두 적용한 새 이미지를 반환.
+     * @param index 프레임 번호 (0부터)
+     */
+    BufferedImage renderFrame(int index) throws IOException {
+        BufferedImage raw;
+        List<Operation> snapshot;
+        int width, height;
+        Resampler.Kernel frameKernel;
+        synchronized (this) {
+            raw = compositedFrame(index);
+            snapshot = new ArrayList<>(operations);
+            width = proxyWidth;
+            height = proxyHeight;
+            frameKernel = kernel;
+        }
+        return applyPipeline(raw, snapshot, width, height, frameKernel);
+    }
+
+    /**
+     * 편집 결과를 프레임 단위로 스트리밍 저장 (작업 스레드에서 호출).
+     * 프레임은 순서대로 디코딩하고, 코어 수만큼 묶어 편집 작업을 병렬로 적용한 뒤 순서대로 작성기에 기록합니다.
+     * 문서 잠금은 묶음 단위 디코딩 동안만 잡으므로 저장 중에도 화면의 프레임 표시가 막히지 않습니다.
+     * 프레임은 저장 폴더의 임시 파일에 기록한 뒤 모두 성공했을 때만 대상 파일로 옮기므로,
+     * 원본 파일 위에 저장해도 아직 읽지 않은 프레임이 덮어써지지 않고, 실패 시 대상 파일은 그대로 남습니다.
+     * @param output 저장할 파일
+     * @param formatName "gif" 또는 "tif"
+     */
+    void write(File output, String formatName) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) throw new IOException("지원되지 않는 저장 형식: " + formatName);
+        ImageWriter writer = writers.next();
+        if (!writer.canWriteSequence()) {
+            writer.dispose();
+            throw new IOException("다중 프레임 저장을 지원하지 않는 형식: " + formatName);
+        }
+
+        List<Operation> snapshot;
+        int width, height;
+        Resampler.Kernel frameKernel;
+        synchronized (this) { // 저장 시작 시점의 편집 상태로 저장
+            snapshot = new ArrayList<>(operations);
+            width = proxyWidth;
+            height = proxyHeight;
+            frameKernel = kernel;
+        }
+        boolean gifOutput = "gif".equalsIgnoreCase(formatName);
+        int window = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        File target = output.getAbsoluteFile();
+        File temp;
+        try {
+            temp = File.createTempFile("." + target.getName() + "-", ".tmp", target.getParentFile());
+        } catch (IOException e) {
+            writer.dispose();
+            throw e;
+        }
+        boolean completed = false;
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp)) {
+                if (out == null) throw new IOException("파일에 쓸 수 없습니다: " + temp.getName());
+                writer.setOutput(out);
+                writer.prepareWriteSequence(null);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+
+                for (int start = 0; start < frameCount; start += window) {
+                    int count = Math.min(window, frameCount - start);
+                    BufferedImage[] frames = new BufferedImage[count];
+                    int[] delays = new int[count];
+                    int loops;
+                    synchronized (this) { // 디코더는 스레드 안전하지 않으므로 잠금 안에서 순차 디코딩
+                        if (closed) throw new IOException("문서가 닫혀 저장이 중단되었습니다.");
+                        for (int i = 0; i < count; i++) {
+                            frames[i] = compositedFrame(start + i);
+                            delays[i] = frameInfo(start + i).delayTime;
+                        }
+                        loops = loopCount;
+                    }
+                    IntStream.range(0, count).parallel().forEach(i ->
+                        frames[i] = applyPipeline(frames[i], snapshot, width, height, frameKernel));
+
+                    for (int i = 0; i < count; i++) {
+                        IIOMetadata metadata = gifOutput ? gifFrameMetadata(writer, param, frames[i], start + i, delays[i], loops) : null;
+                        writer.writeToSequence(new IIOImage(frames[i], null, metadata), param);
+                        frames[i] = null; // 기록이 끝난 프레임은 바로 해제
+                    }
+                }
+                writer.endWriteSequence();
+            }
+            // 스트림을 닫은 뒤 (파일 핸들 해제 후) 대상 파일 교체
+            replaceFile(temp, target);
+            completed = true;
+        } finally {
+            writer.dispose();
+            if (!completed && !temp.delete()) temp.deleteOnExit(); // 실패/중단 시 임시 파일 정리
+        }
+    }
+
+    /**
+     * 임시 파일을 대상 파일 위치로 옮김 (가능하면 원자적으로, 기존 파일은 교체).
+     */
+    private static void replaceFile(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        frameCache.clear();
+        reader.dispose();
+        input.close();
+    }
+
+    /**
+     * 원본 프레임을 프록시 크기 안에 맞게 리샘플링한 뒤 편집 작업을 순서대로 적용.
+     * 캔버스와 크기가 다른 TIFF 페이지는 자체 비율을 유지하므로 프록시보다 한 변이 짧을 수 있습니다.
+     * 리샘플링 결과는 항상 새 버퍼이므로 캐시된 원본 프레임은 변경되지 않습니다.
+     */
+    private BufferedImage applyPipeline(BufferedImage raw, List<Operation> ops, int width, int height, Resampler.Kernel kernel) {
+        int frameWidth = width;
+        int frameHeight = height;
+        if (raw.getWidth() != canvasWidth || raw.getHeight() != canvasHeight) {
+            double scale = Math.min((double) width / raw.getWidth(), (double) height / raw.getHeight());
+            frameWidth = Math.max(1, (int) Math.round(raw.getWidth() * scale));
+            frameHeight = Math.max(1, (int) Math.round(raw.getHeight() * scale));
+        }
+        BufferedImage frame = Resampler.resize(raw, frameWidth, frameHeight, kernel);
+        for (Operation op : ops) {
+            frame = op.function.apply(frame);
+        }
+        return frame;
+    }
+
+    /**
+     * 화면에 보이는 상태의 원본 프레임 (GIF는 이전 프레임과 합성된 결과). 캐시를 거칩니다.
+     */
+    private BufferedImage compositedFrame(int index) throws IOException {
+        if (index < 0 || index >= frameCount) {
+            throw new IndexOutOfBoundsException("프레임 번호 범위 초과: " + index);
+        }
+        BufferedImage cached = frameCache.get(index);
+        if (cached != null) return cached;
+
+        if (!animatedGif) { // TIFF 페이지는 서로 독립적
+            BufferedImage page = reader.read(index);
+            frameCache.put(index, page);
+            return page;
+        }
+
+        // 캐시된 가장 가까운 이전 프레임부터 합성 (restoreToPrevious 프레임은 이전 배경을 알 수 없어 건너뜀)
+        int start = 0;
+        BufferedImage canvasBefore = null;
+        for (int j = index - 1; j >= 0; j--) {
+            if (frameCache.containsKey(j) && frameInfo(j).disposal != Disposal.RESTORE_TO_PREVIOUS) {
+                canvasBefore = disposeAfter(j, frameCache.get(j), null);
+                start = j + 1;
+                break;
+            }
+        }
+        if (canvasBefore == null) {
+            canvasBefore = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        BufferedImage result = null;
+        for (int k = start; k <= index; k++) {
+            BufferedImage frame = reader.read(k);
+            FrameInfo info = frameInfo(k);
+            info.width = frame.getWidth();
+            info.height = frame.getHeight();
+
+            BufferedImage composed = copyCanvas(canvasBefore);
+            Graphics2D g2d = composed.createGraphics();
+            g2d.drawImage(frame, info.x, info.y, null);
+            g2d.dispose();
+            frameCache.put(k, composed);
+
+            if (k == index) {
+                result = composed;
+            } else {
+                canvasBefore = disposeAfter(k, composed, canvasBefore);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 프레임 k를 표시한 뒤 처리 방식에 따라 다음 프레임이 그려질 배경 캔버스 계산.
+     */
+    private BufferedImage disposeAfter(int k, BufferedImage composed, BufferedImage canvasBefore) throws IOException {
+        FrameInfo info = frameInfo(k);
+        switch (info.disposal) {
+            case RESTORE_TO_BACKGROUND: {
+                BufferedImage cleared = copyCanvas(composed);
+                Graphics2D g2d = cleared.createGraphics();
+                g2d.setComposite(AlphaComposite.Clear);
+                g2d.fillRect(info.x, info.y, info.width, info.height);
+                g2d.dispose();
+                return cleared;
+            }
+            case RESTORE_TO_PREVIOUS:
+                return canvasBefore;
+            default:
+                return composed; // 다음 단계에서 복사 후 그리므로 공유해도 안전
+        }
+    }
+
+    private BufferedImage copyCanvas(BufferedImage canvas) {
+        BufferedImage copy = new BufferedImage(canvasWidth, canvasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = copy.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(canvas, 0, 0, null);
+        g2d.dispose();
+        return copy;
+    }
+
+    /**
+     * GIF 프레임 메타데이터 (위치, 처리 방식, 지연 시간)를 읽어 캐시.
+     */
+    private FrameInfo frameInfo(int index) throws IOException {
+        FrameInfo info = frameInfos[index];
+        if (info != null) return info;
+
+        info = new FrameInfo();
+        IIOMetadata metadata = reader.getImageMetadata(index);
+        if (animatedGif && metadata != null) {
+            Node root = metadata.getAsTree(GIF_IMAGE_METADATA);
+            Node descriptor = findChild(root, "ImageDescriptor");
+            if (descriptor != null) {
+                info.x = intAttribute(descriptor, "imageLeftPosition", 0);
+                info.y = intAttribute(descriptor, "imageTopPosition", 0);
+                info.width = intAttribute(descriptor, "imageWidth", 0);
+                info.height = intAttribute(descriptor, "imageHeight", 0);
+            }
+            Node control = findChild(root, "GraphicControlExtension");
+            if (control != null) {
+                String disposal = stringAttribute(control, "disposalMethod");
+                if ("restoreToBackgroundColor".equals(disposal)) info.disposal = Disposal.RESTORE_TO_BACKGROUND;
+                else if ("restoreToPrevious".equals(disposal)) info.disposal = Disposal.RESTORE_TO_PREVIOUS;
+                info.delayTime = intAttribute(control, "delayTime", 0);
+            }
+            if (index == 0) loopCount = readLoopCount(root);
+        }
+        frameInfos[index] = info;
+        return info;
+    }
+
+    /**
+     * NETSCAPE2.0 애플리케이션 확장에서 반복 횟수 읽기 (없으면 0 = 무한).
+     */
+    private static int readLoopCount(Node root) {
+        Node extensions = findChild(root, "ApplicationExtensions");
+        if (extensions == null) return 0;
+        for (Node n = extensions.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if ("NETSCAPE".equals(stringAttribute(n, "applicationID")) && n instanceof IIOMetadataNode) {
+                Object user = ((IIOMetadataNode) n).getUserObject();
+                if (user instanceof byte[] && ((byte[]) user).length >= 3) {
+                    byte[] data = (byte[]) user;
+                    return (data[1] & 0xFF) | ((data[2] & 0xFF) << 8);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 저장용 GIF 프레임 메타데이터 생성. 프레임은 전체 캔버스로 합성되어 있으므로 위치는 (0,0)이며,
+     * 투명 영역에 이전 프레임이 비치지 않도록 배경 복원 방식을 사용합니다.
+     */
+    private static IIOMetadata gifFrameMetadata(ImageWriter writer, ImageWriteParam param, BufferedImage frame, int index, int delayTime, int loopCount) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(frame), param);
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(GIF_IMAGE_METADATA);
+
+        IIOMetadataNode control = findOrCreateChild(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "restoreToBackgroundColor");
+        control.setAttribute("userInputFlag", "FALSE");
+        if (control.getAttribute("transparentColorFlag").isEmpty()) {
+            control.setAttribute("transparentColorFlag", "FALSE");
+            control.setAttribute("transparentColorIndex", "0");
+        }
+        control.setAttribute("delayTime", String.valueOf(delayTime));
+
+        if (index == 0) {
+            IIOMetadataNode extensions = findOrCreateChild(root, "ApplicationExtensions");
+            IIOMetadataNode netscape = new IIOMetadataNode("ApplicationExtension");
+            netscape.setAttribute("applicationID", "NETSCAPE");
+            netscape.setAttribute("authenticationCode", "2.0");
+            netscape.setUserObject(new byte[]{ 0x1, (byte) (loopCount & 0xFF), (byte) ((loopCount >> 8) & 0xFF) });
+            extensions.appendChild(netscape);
+        }
+        metadata.setFromTree(GIF_IMAGE_METADATA, root);
+        return metadata;
+    }
+
+    private static Node findChild(Node parent, String name) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (name.equals(n.getNodeName())) return n;
+        }
+        return null;
+    }
+
+    private static IIOMetadataNode findOrCreateChild(IIOMetadataNode parent, String name) {
+        Node existing = findChild(parent, name);
+        if (existing != null) return (IIOMetadataNode) existing;
+        IIOMetadataNode created = new IIOMetadataNode(name);
+        parent.appendChild(created);
+        return created;
+    }
+
+    private static String stringAttribute(Node node, String name) {
+        NamedNodeMap attributes = node.getAttributes();
+        Node attribute = attributes != null ? attributes.getNamedItem(name) : null;
+        return attribute != null ? attribute.getNodeValue() : null;
+    }
+
+    private static int intAttribute(Node node, String name, int defaultValue) {
+        String value = stringAttribute(node, name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
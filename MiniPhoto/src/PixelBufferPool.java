@@ -0,0 +1,112 @@
+// --- 자바 AWT 이미지 처리 관련 임포트 ---
+import java.awt.image.*;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 크기와 픽셀 형식별로 BufferedImage를 재사용하는 버퍼 풀.
+ * 미리보기, 임시 변환 버퍼, 실행 취소에서 밀려난 이미지를 반환받아 다음 편집 작업에 다시 내어줍니다.
+ * 풀이 보관하는 전체 바이트 수는 상한을 넘지 않으며, 넘칠 경우 가장 오래 쓰이지 않은 형식부터 버립니다.
+ *
+ * 주의: acquire로 받은 버퍼에는 이전 내용이 남아 있을 수 있으므로 호출자가 전체 영역을 덮어써야 합니다.
+ */
+final class PixelBufferPool {
+
+    /** 풀 보관 키 (너비, 높이, BufferedImage 형식). */
+    private record Key(int width, int height, int type) { }
+
+    private long maxRetainedBytes;
+    private long retainedBytes;
+    // 접근 순서 LinkedHashMap: 가장 오래 사용되지 않은 키가 앞쪽
+    private final LinkedHashMap<Key, ArrayDeque<BufferedImage>> freeBuffers = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param maxRetainedBytes 풀이 보관할 수 있는 최대 바이트 수
+     */
+    PixelBufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    /**
+     * 힙 최대 크기의 1/8 (최대 256MB)을 기본 보관 한도로 사용.
+     */
+    static long defaultBudgetBytes() {
+        return Math.min(Runtime.getRuntime().maxMemory() / 8, 256L * 1024 * 1024);
+    }
+
+    /**
+     * 지정한 크기와 형식의 버퍼를 풀에서 꺼내거나 새로 생성.
+     * @param width 너비
+     * @param height 높이
+     * @param type BufferedImage 형식 (TYPE_CUSTOM 불가)
+     * @return 내용이 정의되지 않은 버퍼
+     */
+    synchronized BufferedImage acquire(int width, int height, int type) {
+        ArrayDeque<BufferedImage> queue = freeBuffers.get(new Key(width, height, type));
+        if (queue != null && !queue.isEmpty()) {
+            BufferedImage reused = queue.pop();
+            retainedBytes -= sizeInBytes(reused);
+            return reused;
+        }
+        return new BufferedImage(width, height, type);
+    }
+
+    /**
+     * 더 이상 참조하지 않는 버퍼를 풀에 반환.
+     * 다른 이미지와 래스터를 공유하는 하위 이미지(getSubimage 결과)나 사용자 정의 형식은 받지 않습니다.
+     * @param image 반환할 이미지 (null 허용)
+     */
+    synchronized void release(BufferedImage image) {
+        if (image == null || image.getType() == BufferedImage.TYPE_CUSTOM) return;
+        WritableRaster raster = image.getRaster();
+        if (raster.getParent() != null || raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0) return;
+
+        long bytes = sizeInBytes(image);
+        if (bytes > maxRetainedBytes) return;
+        evictUntilFits(bytes);
+
+        ArrayDeque<BufferedImage> queue = freeBuffers.computeIfAbsent(
+            new Key(image.getWidth(), image.getHeight(), image.getType()), k -> new ArrayDeque<>());
+        for (BufferedImage pooled : queue) {
+            if (pooled == image) return; // 중복 반환 방지
+        }
+        queue.push(image);
+        retainedBytes += bytes;
+    }
+
+    /**
+     * 보관 한도 변경 (메모리 압박 단계에 따라 조정). 한도를 넘는 버퍼는 오래된 것부터 즉시 버립니다.
+     * @param maxRetainedBytes 새 보관 한도 (0이면 아무것도 보관하지 않음)
+     */
+    synchronized void setMaxRetainedBytes(long maxRetainedBytes) {
+        this.maxRetainedBytes = Math.max(0L, maxRetainedBytes);
+        evictUntilFits(0L);
+    }
+
+    /**
+     * 현재 풀이 보관 중인 바이트 수.
+     */
+    synchronized long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    private void evictUntilFits(long incomingBytes) {
+        Iterator<Map.Entry<Key, ArrayDeque<BufferedImage>>> it = freeBuffers.entrySet().iterator();
+        while (retainedBytes + incomingBytes > maxRetainedBytes && it.hasNext()) {
+            ArrayDeque<BufferedImage> queue = it.next().getValue();
+            while (!queue.isEmpty() && retainedBytes + incomingBytes > maxRetainedBytes) {
+                retainedBytes -= sizeInBytes(queue.removeLast());
+            }
+            if (queue.isEmpty()) it.remove();
+        }
+    }
+
+    private static long sizeInBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+    }
+}
@@ -0,0 +1,218 @@
+// --- 자바 AWT 관련 그래픽 및 이미지 처리 임포트 ---
+import java.awt.*;
+import java.awt.image.*;
+
+// --- 이미지 입출력 관련 임포트 ---
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+// --- 파일 입출력 관련 임포트 ---
+import java.io.*;
+import java.nio.file.Files;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 편집된 이미지 하나에서 여러 크기/형식의 결과물(렌디션)을 한 번에 내보내는 도구.
+ * 렌디션은 큰 크기부터 차례로 만들되 각각 바로 위 크기의 결과에서 리샘플링하고,
+ * 만들어진 렌디션의 인코딩은 작업 스레드 풀에서 병렬로 진행합니다.
+ */
+final class RenditionExporter {
+
+    /**
+     * 내보내기 프리셋 하나 (파일 이름 접미사, 형식, 긴 변 최대 길이, JPEG 품질).
+     */
+    static final class Rendition {
+        final String label;
+        final String suffix;
+        final String format;
+        final int maxLongEdge; // 0이면 원본 크기
+        final float quality;   // JPEG 압축 품질 (0.0 ~ 1.0)
+
+        Rendition(String label, String suffix, String format, int maxLongEdge, float quality) {
+            this.label = label;
+            this.suffix = suffix;
+            this.format = format;
+            this.maxLongEdge = maxLongEdge;
+            this.quality = quality;
+        }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    /**
+     * 내보내기 결과 (저장된 파일 목록, 건너뛴 렌디션, 전체 소요 시간).
+     */
+    static final class Result {
+        final List<File> files;
+        final List<Rendition> skipped; // 원본이 작아 앞선 렌디션과 크기와 형식이 모두 같아진 렌디션
+        final long elapsedMillis;
+
+        Result(List<File> files, List<Rendition> skipped, long elapsedMillis) {
+            this.files = files;
+            this.skipped = skipped;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+    private RenditionExporter() { }
+
+    /**
+     * 기본 프리셋: 원본 크기 PNG, 2048px JPEG, 1024px JPEG, 256px 썸네일.
+     */
+    static List<Rendition> defaultPresets() {
+        return Arrays.asList(
+            new Rendition("원본 크기 PNG", "", "png", 0, 1.0f),
+            new Rendition("2048px JPEG", "_2048", "jpg", 2048, 0.90f),
+            new Rendition("1024px JPEG", "_1024", "jpg", 1024, 0.85f),
+            new Rendition("256px 썸네일", "_thumb", "jpg", 256, 0.80f));
+    }
+
+    /**
+     * 선택한 렌디션을 모두 내보내기.
+     * 원본보다 크게 확대하지 않으므로 여러 렌디션의 크기가 같아질 수 있는데, 이때 리샘플링 결과는 함께 쓰고
+     * 형식이 다르면 각각 인코딩합니다. 크기와 형식이 모두 같은 렌디션만 건너뛰어 결과에 알립니다.
+     * @param source 편집된 이미지 (내보내는 동안 변경되면 안 됨)
+     * @param directory 저장 폴더
+     * @param baseName 파일 이름 앞부분
+     * @param renditions 내보낼 렌디션 목록
+     * @param kernel 축소에 사용할 리샘플링 커널
+     * @return 저장된 파일과 전체 소요 시간
+     */
+    static Result export(BufferedImage source, File directory, String baseName, List<Rendition> renditions, Resampler.Kernel kernel) throws IOException {
+        long startNanos = System.nanoTime();
+        int longEdge = Math.max(source.getWidth(), source.getHeight());
+
+        // 큰 렌디션부터 처리해야 각 렌디션을 바로 위 크기에서 파생할 수 있음
+        List<Rendition> ordered = new ArrayList<>(renditions);
+        ordered.sort(Comparator.comparingInt((Rendition r) -> targetLongEdge(r, longEdge)).reversed());
+
+        ExecutorService encoders = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(ordered.size(), Runtime.getRuntime().availableProcessors())));
+        List<Future<File>> pending = new ArrayList<>();
+        List<Rendition> skipped = new ArrayList<>();
+        Set<String> writtenOutputs = new HashSet<>(); // "너비x높이.형식" (같은 크기라도 형식이 다르면 따로 인코딩)
+        try {
+            BufferedImage previous = source;
+            for (Rendition rendition : ordered) {
+                double scale = (double) targetLongEdge(rendition, longEdge) / longEdge;
+                int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                if (!writtenOutputs.add(width + "x" + height + "." + normalizedFormat(rendition.format))) {
+                    skipped.add(rendition);
+                    continue;
+                }
+
+                BufferedImage image = (width == previous.getWidth() && height == previous.getHeight())
+                    ? previous
+                    : Resampler.resize(previous, width, height, kernel);
+                File target = new File(directory, baseName + rendition.suffix + "." + rendition.format);
+                pending.add(encoders.submit(() -> encode(image, rendition, target)));
+                previous = image;
+            }
+
+            List<File> files = new ArrayList<>();
+            for (Future<File> future : pending) {
+                files.add(future.get());
+            }
+            return new Result(files, skipped, (System.nanoTime() - startNanos) / 1_000_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("내보내기가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("렌디션 인코딩 실패: " + cause.getMessage(), cause);
+        } finally {
+            for (Future<File> future : pending) future.cancel(true);
+            encoders.shutdown();
+            awaitEncoders(encoders);
+        }
+    }
+
+    /**
+     * 실행 중인 인코딩 작업이 모두 끝날 때까지 대기.
+     * 실패/중단으로 일찍 빠져나가더라도 반환 후에는 원본 이미지를 읽는 작업이 없으므로
+     * 호출 측이 원본 버퍼를 풀에 돌려주어도 안전합니다.
+     */
+    private static void awaitEncoders(ExecutorService encoders) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (encoders.awaitTermination(1, TimeUnit.SECONDS)) break;
+            } catch (InterruptedException e) {
+                interrupted = true; // 작업이 끝날 때까지는 계속 기다리고 인터럽트 상태는 나중에 복원
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * 중복 판단용 형식 이름 (jpg와 jpeg는 같은 형식).
+     */
+    private static String normalizedFormat(String format) {
+        String lower = format.toLowerCase();
+        return "jpeg".equals(lower) ? "jpg" : lower;
+    }
+
+    /**
+     * 렌디션의 긴 변 길이 (원본보다 크게 확대하지 않음).
+     */
+    private static int targetLongEdge(Rendition rendition, int sourceLongEdge) {
+        return rendition.maxLongEdge <= 0 ? sourceLongEdge : Math.min(rendition.maxLongEdge, sourceLongEdge);
+    }
+
+    /**
+     * 렌디션 하나를 파일로 인코딩. JPEG는 알파 채널을 흰색 배경으로 합성하고 품질을 지정합니다.
+     */
+    private static File encode(BufferedImage image, Rendition rendition, File target) throws IOException {
+        boolean jpeg = "jpg".equalsIgnoreCase(rendition.format) || "jpeg".equalsIgnoreCase(rendition.format);
+        if (!jpeg) {
+            if (!ImageIO.write(image, rendition.format, target)) {
+                throw new IOException("지원되지 않는 형식: " + rendition.format);
+            }
+            return target;
+        }
+
+        BufferedImage rgbImage = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgbImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = rgbImage.createGraphics();
+            g2d.drawImage(image, 0, 0, Color.WHITE, null);
+            g2d.dispose();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpg");
+        if (!writers.hasNext()) throw new IOException("JPEG 작성기를 찾을 수 없습니다.");
+        ImageWriter writer = writers.next();
+        // 파일 출력 스트림은 기존 파일을 자르지 않으므로 (ImageIO.write처럼) 먼저 삭제하여 이전 내용의 꼬리가 남지 않게 함
+        Files.deleteIfExists(target.toPath());
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target)) {
+            if (out == null) throw new IOException("파일에 쓸 수 없습니다: " + target.getName());
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(rendition.quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(rgbImage, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return target;
+    }
+}
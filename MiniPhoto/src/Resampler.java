@@ -0,0 +1,313 @@
+// --- 자바 AWT 이미지 처리 관련 임포트 ---
+import java.awt.image.*;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.stream.IntStream;
+
+/**
+ * 분리형(가로 → 세로) 필터 기반의 고품질 리샘플링 엔진.
+ * 원시 ARGB 픽셀 배열을 직접 다루며 각 패스를 행 단위로 병렬 처리합니다.
+ * 큰 비율로 축소할 때는 2배 단위로 먼저 줄인 뒤(progressive halving) 최종 커널을 적용합니다.
+ */
+final class Resampler {
+
+    /**
+     * 리샘플링 커널 종류.
+     */
+    enum Kernel {
+        BILINEAR("쌍선형", 1.0) {
+            @Override
+            double weight(double x) {
+                x = Math.abs(x);
+                return x < 1.0 ? 1.0 - x : 0.0;
+            }
+        },
+        BICUBIC("쌍삼차", 2.0) {
+            @Override
+            double weight(double x) {
+                final double a = -0.5; // Catmull-Rom
+                x = Math.abs(x);
+                if (x < 1.0) return ((a + 2.0) * x - (a + 3.0)) * x * x + 1.0;
+                if (x < 2.0) return ((a * x - 5.0 * a) * x + 8.0 * a) * x - 4.0 * a;
+                return 0.0;
+            }
+        },
+        LANCZOS3("Lanczos-3", 3.0) {
+            @Override
+            double weight(double x) {
+                x = Math.abs(x);
+                if (x < 1e-8) return 1.0;
+                if (x >= 3.0) return 0.0;
+                double px = Math.PI * x;
+                return 3.0 * Math.sin(px) * Math.sin(px / 3.0) / (px * px);
+            }
+        };
+
+        private final String label;
+        final double support; // 커널 반경 (원본 픽셀 단위)
+
+        Kernel(String label, double support) {
+            this.label = label;
+            this.support = support;
+        }
+
+        abstract double weight(double x);
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private static final int ROW_BAND = 64; // 범용 픽셀 읽기 시 병렬 처리 단위 (행 수)
+
+    private Resampler() { }
+
+    /**
+     * 이미지를 지정한 크기로 리샘플링.
+     * @param src 원본 이미지
+     * @param dstWidth 결과 너비
+     * @param dstHeight 결과 높이
+     * @param kernel 사용할 커널
+     * @return TYPE_INT_ARGB 형식의 결과 이미지
+     */
+    static BufferedImage resize(BufferedImage src, int dstWidth, int dstHeight, Kernel kernel) {
+        return resize(src, dstWidth, dstHeight, kernel, null);
+    }
+
+    /**
+     * 이미지를 지정한 크기로 리샘플링하고, 결과 버퍼는 버퍼 풀에서 가져옴.
+     * @param pool 결과 버퍼를 가져올 풀 (null이면 새로 생성)
+     */
+    static BufferedImage resize(BufferedImage src, int dstWidth, int dstHeight, Kernel kernel, PixelBufferPool pool) {
+        if (src == null) return null;
+        if (dstWidth <= 0 || dstHeight <= 0) {
+            throw new IllegalArgumentException("잘못된 결과 크기: " + dstWidth + "x" + dstHeight);
+        }
+        int width = src.getWidth();
+        int height = src.getHeight();
+        int[] pixels = readArgb(src);
+
+        // 큰 축소는 2배 단위 박스 평균으로 먼저 줄여 최종 커널의 탭 수를 제한
+        while (width >= dstWidth * 2 || height >= dstHeight * 2) {
+            int factorX = width >= dstWidth * 2 ? 2 : 1;
+            int factorY = height >= dstHeight * 2 ? 2 : 1;
+            pixels = halve(pixels, width, height, factorX, factorY);
+            width /= factorX;
+            height /= factorY;
+        }
+
+        if (width != dstWidth || height != dstHeight) {
+            pixels = convolve(pixels, width, height, dstWidth, dstHeight, kernel);
+        }
+
+        BufferedImage result = pool != null
+            ? pool.acquire(dstWidth, dstHeight, BufferedImage.TYPE_INT_ARGB)
+            : new BufferedImage(dstWidth, dstHeight, BufferedImage.TYPE_INT_ARGB);
+        result.getRaster().setDataElements(0, 0, dstWidth, dstHeight, pixels);
+        return result;
+    }
+
+    /**
+     * 이미지 전체를 비사전곱(non-premultiplied) ARGB 배열로 읽기.
+     * 정수 패킹 형식은 래스터에서 바로 복사하고, 그 외 형식은 행 묶음 단위로 병렬 변환합니다.
+     */
+    static int[] readArgb(BufferedImage img) {
+        int width = img.getWidth();
+        int height = img.getHeight();
+        int[] out = new int[width * height];
+        int type = img.getType();
+
+        if (type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB) {
+            img.getRaster().getDataElements(0, 0, width, height, out);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                for (int i = 0; i < out.length; i++) out[i] |= 0xFF000000;
+            }
+            return out;
+        }
+
+        int bands = (height + ROW_BAND - 1) / ROW_BAND;
+        if (type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR) {
+            // 바이트 인터리브 형식: 데이터 요소는 밴드 순서(R, G, B[, A])로 반환됨
+            Raster raster = img.getRaster();
+            boolean hasAlpha = type == BufferedImage.TYPE_4BYTE_ABGR;
+            int channels = hasAlpha ? 4 : 3;
+            IntStream.range(0, bands).parallel().forEach(band -> {
+                int y0 = band * ROW_BAND;
+                int rows = Math.min(ROW_BAND, height - y0);
+                byte[] row = new byte[width * channels];
+                for (int y = y0; y < y0 + rows; y++) {
+                    raster.getDataElements(0, y, width, 1, row);
+                    int o = y * width;
+                    for (int x = 0, i = 0; x < width; x++, i += channels) {
+                        int alpha = hasAlpha ? (row[i + 3] & 0xFF) : 0xFF;
+                        out[o + x] = (alpha << 24) | ((row[i] & 0xFF) << 16) | ((row[i + 1] & 0xFF) << 8) | (row[i + 2] & 0xFF);
+                    }
+                }
+            });
+            return out;
+        }
+
+        IntStream.range(0, bands).parallel().forEach(band -> {
+            int y0 = band * ROW_BAND;
+            int rows = Math.min(ROW_BAND, height - y0);
+            img.getRGB(0, y0, width, rows, out, y0 * width, width);
+        });
+        return out;
+    }
+
+    /**
+     * 알파 가중 박스 평균으로 가로/세로를 각각 1배 또는 2배 축소.
+     */
+    private static int[] halve(int[] src, int width, int height, int factorX, int factorY) {
+        int outWidth = width / factorX;
+        int outHeight = height / factorY;
+        int[] out = new int[outWidth * outHeight];
+
+        IntStream.range(0, outHeight).parallel().forEach(oy -> {
+            int outRow = oy * outWidth;
+            for (int ox = 0; ox < outWidth; ox++) {
+                long sumA = 0, sumR = 0, sumG = 0, sumB = 0;
+                for (int dy = 0; dy < factorY; dy++) {
+                    int srcRow = (oy * factorY + dy) * width;
+                    for (int dx = 0; dx < factorX; dx++) {
+                        int p = src[srcRow + ox * factorX + dx];
+                        int a = p >>> 24;
+                        sumA += a;
+                        sumR += ((p >> 16) & 0xFF) * a;
+                        sumG += ((p >> 8) & 0xFF) * a;
+                        sumB += (p & 0xFF) * a;
+                    }
+                }
+                int count = factorX * factorY;
+                int a = (int) ((sumA + count / 2) / count);
+                if (sumA == 0) {
+                    out[outRow + ox] = 0;
+                } else {
+                    int r = (int) ((sumR + sumA / 2) / sumA);
+                    int g = (int) ((sumG + sumA / 2) / sumA);
+                    int b = (int) ((sumB + sumA / 2) / sumA);
+                    out[outRow + ox] = (a << 24) | (r << 16) | (g << 8) | b;
+                }
+            }
+        });
+        return out;
+    }
+
+    /**
+     * 가로 패스 후 세로 패스로 분리형 필터를 적용.
+     * 중간 결과는 사전곱(premultiplied) float 값으로 유지하여 투명 경계의 색 번짐을 막습니다.
+     */
+    private static int[] convolve(int[] src, int srcWidth, int srcHeight, int dstWidth, int dstHeight, Kernel kernel) {
+        Contributions horizontal = new Contributions(srcWidth, dstWidth, kernel);
+        Contributions vertical = new Contributions(srcHeight, dstHeight, kernel);
+
+        // 가로 패스: srcWidth x srcHeight → dstWidth x srcHeight (채널 4개 인터리브)
+        float[] temp = new float[dstWidth * srcHeight * 4];
+        IntStream.range(0, srcHeight).parallel().forEach(y -> {
+            int srcRow = y * srcWidth;
+            int tempRow = y * dstWidth * 4;
+            for (int x = 0; x < dstWidth; x++) {
+                int start = horizontal.start[x];
+                int count = horizontal.count[x];
+                int weightBase = x * horizontal.stride;
+                float a = 0f, r = 0f, g = 0f, b = 0f;
+                for (int i = 0; i < count; i++) {
+                    float w = horizontal.weights[weightBase + i];
+                    int p = src[srcRow + start + i];
+                    float pa = (p >>> 24) * w;
+                    a += pa;
+                    r += ((p >> 16) & 0xFF) * pa;
+                    g += ((p >> 8) & 0xFF) * pa;
+                    b += (p & 0xFF) * pa;
+                }
+                int t = tempRow + x * 4;
+                temp[t] = a;
+                temp[t + 1] = r;
+                temp[t + 2] = g;
+                temp[t + 3] = b;
+            }
+        });
+
+        // 세로 패스: dstWidth x srcHeight → dstWidth x dstHeight
+        int[] out = new int[dstWidth * dstHeight];
+        int tempStride = dstWidth * 4;
+        IntStream.range(0, dstHeight).parallel().forEach(y -> {
+            int start = vertical.start[y];
+            int count = vertical.count[y];
+            int weightBase = y * vertical.stride;
+            int outRow = y * dstWidth;
+            for (int x = 0; x < dstWidth; x++) {
+                float a = 0f, r = 0f, g = 0f, b = 0f;
+                int t = start * tempStride + x * 4;
+                for (int i = 0; i < count; i++, t += tempStride) {
+                    float w = vertical.weights[weightBase + i];
+                    a += temp[t] * w;
+                    r += temp[t + 1] * w;
+                    g += temp[t + 2] * w;
+                    b += temp[t + 3] * w;
+                }
+                out[outRow + x] = unpremultiply(a, r, g, b);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * 사전곱 누적값을 0-255 범위의 비사전곱 ARGB 정수로 변환.
+     */
+    private static int unpremultiply(float a, float r, float g, float b) {
+        int alpha = clamp(Math.round(a));
+        if (a <= 0f) return 0;
+        int red = clamp(Math.round(r / a));
+        int green = clamp(Math.round(g / a));
+        int blue = clamp(Math.round(b / a));
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private static int clamp(int val) {
+        return Math.max(0, Math.min(255, val));
+    }
+
+    /**
+     * 한 축에 대한 출력 픽셀별 원본 시작 위치, 탭 수, 정규화된 가중치 테이블.
+     */
+    private static final class Contributions {
+        final int[] start;
+        final int[] count;
+        final float[] weights;
+        final int stride;
+
+        Contributions(int srcLength, int dstLength, Kernel kernel) {
+            double scale = (double) dstLength / srcLength;
+            double filterScale = Math.max(1.0, 1.0 / scale); // 축소 시 커널을 넓혀 앨리어싱 방지
+            double support = kernel.support * filterScale;
+
+            stride = (int) Math.ceil(support * 2) + 2;
+            start = new int[dstLength];
+            count = new int[dstLength];
+            weights = new float[dstLength * stride];
+
+            for (int i = 0; i < dstLength; i++) {
+                double center = (i + 0.5) / scale;
+                int first = Math.max(0, (int) Math.floor(center - support));
+                int last = Math.min(srcLength, (int) Math.ceil(center + support));
+                int taps = Math.min(stride, last - first);
+
+                double total = 0.0;
+                for (int j = 0; j < taps; j++) {
+                    double w = kernel.weight((first + j + 0.5 - center) / filterScale);
+                    weights[i * stride + j] = (float) w;
+                    total += w;
+                }
+                if (total == 0.0) { // 가중치가 모두 0이면 가장 가까운 픽셀 사용
+                    first = Math.max(0, Math.min(srcLength - 1, (int) center));
+                    taps = 1;
+                    weights[i * stride] = 1f;
+                } else {
+                    for (int j = 0; j < taps; j++) weights[i * stride + j] /= (float) total;
+                }
+                start[i] = first;
+                count[i] = taps;
+            }
+        }
+    }
+}
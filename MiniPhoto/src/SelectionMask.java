@@ -0,0 +1,192 @@
+// --- 자바 AWT 관련 그래픽 및 이미지 처리 임포트 ---
+import java.awt.*;
+import java.awt.image.*;
+
+// --- 유틸리티 관련 임포트 ---
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * 이미지 위의 선택 영역을 64x64 타일 단위 비트마스크로 저장하는 클래스.
+ * 각 타일은 비어 있음/가득 참/일부 선택 중 하나이며, 일부 선택된 타일만 픽셀 단위 비트(행당 long 하나)를 가집니다.
+ * 픽셀 처리 시 비어 있는 타일은 통째로 건너뛰므로 작업 비용이 선택 영역 크기에 비례합니다.
+ */
+final class SelectionMask {
+
+    static final int TILE_SIZE = 64; // 타일 한 변 (long 하나의 비트 수와 같음)
+
+    private static final byte EMPTY = 0;
+    private static final byte FULL = 1;
+    private static final byte PARTIAL = 2;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int tilesY;
+    private final byte[] tileStates;
+    private final long[][] tileBits;  // PARTIAL 타일만 값이 있음 (행별 64비트)
+    private final int[] selectedTiles; // EMPTY가 아닌 타일 번호 목록
+    private final Shape shape;         // 선택 윤곽선 표시용 (이미지 좌표)
+
+    private SelectionMask(Shape shape, int width, int height) {
+        this.shape = shape;
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        this.tileStates = new byte[tilesX * tilesY];
+        this.tileBits = new long[tilesX * tilesY][];
+
+        // 선택 윤곽과 겹치는 타일만 분류하고, 경계 타일만 픽셀 단위로 래스터화
+        Rectangle shapeBounds = shape.getBounds().intersection(new Rectangle(0, 0, width, height));
+        if (!shapeBounds.isEmpty()) {
+            int firstTileX = shapeBounds.x / TILE_SIZE;
+            int lastTileX = (shapeBounds.x + shapeBounds.width - 1) / TILE_SIZE;
+            int firstTileY = shapeBounds.y / TILE_SIZE;
+            int lastTileY = (shapeBounds.y + shapeBounds.height - 1) / TILE_SIZE;
+            IntStream.rangeClosed(firstTileY, lastTileY).parallel().forEach(tileY -> {
+                for (int tileX = firstTileX; tileX <= lastTileX; tileX++) {
+                    classifyTile(tileX, tileY);
+                }
+            });
+        }
+
+        int count = 0;
+        for (byte state : tileStates) if (state != EMPTY) count++;
+        selectedTiles = new int[count];
+        for (int t = 0, i = 0; t < tileStates.length; t++) {
+            if (tileStates[t] != EMPTY) selectedTiles[i++] = t;
+        }
+    }
+
+    /**
+     * 도형(사각형, 타원, 자유형 경로)으로 선택 마스크 생성.
+     * @param shape 이미지 좌표계의 선택 도형
+     * @param width 이미지 너비
+     * @param height 이미지 높이
+     */
+    static SelectionMask fromShape(Shape shape, int width, int height) {
+        return new SelectionMask(shape, width, height);
+    }
+
+    private void classifyTile(int tileX, int tileY) {
+        int t = tileY * tilesX + tileX;
+        int x0 = tileX * TILE_SIZE;
+        int y0 = tileY * TILE_SIZE;
+        int tw = Math.min(TILE_SIZE, width - x0);
+        int th = Math.min(TILE_SIZE, height - y0);
+
+        if (shape.contains(x0, y0, tw, th)) {
+            tileStates[t] = FULL;
+            return;
+        }
+        if (!shape.intersects(x0, y0, tw, th)) {
+            tileStates[t] = EMPTY;
+            return;
+        }
+
+        long[] bits = new long[th];
+        boolean any = false;
+        boolean all = true;
+        for (int y = 0; y < th; y++) {
+            long row = 0L;
+            for (int x = 0; x < tw; x++) {
+                if (shape.contains(x0 + x + 0.5, y0 + y + 0.5)) row |= 1L << x; // 픽셀 중심 기준
+            }
+            bits[y] = row;
+            any |= row != 0L;
+            all &= row == (tw == 64 ? -1L : (1L << tw) - 1);
+        }
+        if (all) {
+            tileStates[t] = FULL;
+        } else if (any) {
+            tileStates[t] = PARTIAL;
+            tileBits[t] = bits;
+        } else {
+            tileStates[t] = EMPTY;
+        }
+    }
+
+    /**
+     * 선택된 픽셀이 하나도 없는지 확인.
+     */
+    boolean isEmpty() {
+        return selectedTiles.length == 0;
+    }
+
+    /**
+     * 지정한 이미지와 크기가 같은지 확인 (이미지 크기가 바뀌면 선택은 무효).
+     */
+    boolean matches(BufferedImage image) {
+        return image != null && image.getWidth() == width && image.getHeight() == height;
+    }
+
+    /**
+     * (x, y) 픽셀이 선택 영역 안인지 확인.
+     */
+    boolean contains(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int t = (y / TILE_SIZE) * tilesX + (x / TILE_SIZE);
+        byte state = tileStates[t];
+        if (state != PARTIAL) return state == FULL;
+        return ((tileBits[t][y % TILE_SIZE] >>> (x % TILE_SIZE)) & 1L) != 0L;
+    }
+
+    Shape getShape() { return shape; }
+    int getSelectedTileCount() { return selectedTiles.length; }
+    int getTileCount() { return tileStates.length; }
+
+    /**
+     * 선택 도형의 경계 사각형을 이미지 범위로 자른 결과 (이미지 좌표). 타일 단위로 맞춘 값이 아닙니다.
+     * 선택된 픽셀은 모두 이 사각형 안에 있으므로 부분 복사/다시 그리기 범위로 사용합니다.
+     */
+    Rectangle getBounds() {
+        return shape.getBounds().intersection(new Rectangle(0, 0, width, height));
+    }
+
+    /**
+     * 선택 영역 안의 픽셀에만 변환을 적용 (이미지를 직접 수정).
+     * 비어 있는 타일은 건너뛰고, 나머지 타일은 병렬로 처리합니다.
+     * @param image 대상 이미지
+     * @param pixelOp 비사전곱 ARGB 값을 받아 새 ARGB 값을 돌려주는 함수
+     */
+    void apply(BufferedImage image, IntUnaryOperator pixelOp) {
+        int limitWidth = Math.min(width, image.getWidth());
+        int limitHeight = Math.min(height, image.getHeight());
+        int type = image.getType();
+        boolean packedArgb = type == BufferedImage.TYPE_INT_ARGB || type == BufferedImage.TYPE_INT_RGB;
+        WritableRaster raster = image.getRaster();
+
+        IntStream.of(selectedTiles).parallel().forEach(t -> {
+            int x0 = (t % tilesX) * TILE_SIZE;
+            int y0 = (t / tilesX) * TILE_SIZE;
+            if (x0 >= limitWidth || y0 >= limitHeight) return;
+            int tw = Math.min(TILE_SIZE, limitWidth - x0);
+            int th = Math.min(TILE_SIZE, limitHeight - y0);
+
+            int[] pixels = new int[tw * th];
+            if (packedArgb) {
+                raster.getDataElements(x0, y0, tw, th, pixels); // 정수 패킹 형식은 색 변환 없이 바로 읽기
+                if (type == BufferedImage.TYPE_INT_RGB) {
+                    for (int i = 0; i < pixels.length; i++) pixels[i] |= 0xFF000000;
+                }
+            } else {
+                image.getRGB(x0, y0, tw, th, pixels, 0, tw);
+            }
+
+            long[] bits = tileBits[t];
+            for (int y = 0, i = 0; y < th; y++) {
+                long row = bits == null ? -1L : bits[y];
+                for (int x = 0; x < tw; x++, i++) {
+                    if (((row >>> x) & 1L) != 0L) pixels[i] = pixelOp.applyAsInt(pixels[i]);
+                }
+            }
+
+            if (packedArgb) {
+                raster.setDataElements(x0, y0, tw, th, pixels);
+            } else {
+                image.setRGB(x0, y0, tw, th, pixels, 0, tw);
+            }
+        });
+    }
+}